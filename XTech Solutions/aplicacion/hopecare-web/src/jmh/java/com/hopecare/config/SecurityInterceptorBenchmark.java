@@ -0,0 +1,86 @@
+package com.hopecare.config;
+
+import com.hopecare.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Security Interceptor Benchmark
+ * preHandle runs on every request; measured for a public URL, an
+ * authenticated admin and an assistant bounced from an admin area.
+ * Console output is discarded so string building is measured, not the terminal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SecurityInterceptorBenchmark {
+
+    private final SecurityInterceptor interceptor = new SecurityInterceptor();
+
+    private MockHttpSession adminSession;
+    private MockHttpSession assistantSession;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        adminSession = sessionFor("admin", "Administrator");
+        assistantSession = sessionFor("assistant", "Assistant");
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public boolean publicUrl() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/css/style.css");
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public boolean adminDonorsList() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/donors/api/list");
+        request.setSession(adminSession);
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public boolean assistantForbidden() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/programs");
+        request.setSession(assistantSession);
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    private MockHttpSession sessionFor(String username, String roleName) {
+        User user = new User();
+        user.setUserId(1L);
+        user.setUsername(username);
+        user.setRoleName(roleName);
+        MockHttpSession session = new MockHttpSession();
+        session.setAttribute("user", user);
+        return session;
+    }
+}
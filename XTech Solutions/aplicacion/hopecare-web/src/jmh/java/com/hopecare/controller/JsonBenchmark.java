@@ -0,0 +1,146 @@
+package com.hopecare.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hopecare.model.Delivery;
+import com.hopecare.model.Donation;
+import com.hopecare.service.DonationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Benchmark
+ * Serialization of large donation/delivery lists as returned by the
+ * AJAX endpoints, and the money donation request path (body parsing plus
+ * controller handling, with the service stubbed out).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class JsonBenchmark {
+
+    private static final TypeReference<Map<String, Object>> REQUEST_TYPE = new TypeReference<>() {};
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<Donation> donations;
+    private List<Delivery> deliveries;
+    private byte[] moneyRequest;
+    private DonationController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Same settings Spring Boot applies to its auto-configured mapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 10, 30);
+        donations = new ArrayList<>(rows);
+        deliveries = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime createdAt = now.minusMinutes(random.nextInt(500_000));
+
+            Donation donation = new Donation();
+            donation.setDonationId((long) i + 1);
+            donation.setDonationCode(String.format("DNT-%06d", i + 1));
+            donation.setDonationDate(createdAt.toLocalDate());
+            donation.setDonorCode(String.format("DON-%06d", random.nextInt(rows) + 1));
+            donation.setDonorName("Donor " + i);
+            donation.setDonorType("PERSON");
+            donation.setDonationTypeName("MONEY");
+            donation.setAmount(random.nextDouble() * 1000);
+            donation.setCurrencyCode("USD");
+            donation.setCurrencySymbol("$");
+            donation.setAmountInPen(random.nextDouble() * 3700);
+            donation.setProgramCode("PRG-0001");
+            donation.setProgramName("Food Bank");
+            donation.setCreatedByName("Admin");
+            donation.setCreatedAt(createdAt);
+            donations.add(donation);
+
+            Delivery delivery = new Delivery();
+            delivery.setDeliveryId((long) i + 1);
+            delivery.setDeliveryCode(String.format("DEL-%06d", i + 1));
+            delivery.setDeliveryDate(createdAt.toLocalDate());
+            delivery.setStatus("COMPLETED");
+            delivery.setBeneficiaryCode(String.format("BEN-%06d", random.nextInt(rows) + 1));
+            delivery.setBeneficiaryName("Beneficiary " + i);
+            delivery.setFamilySize(1 + random.nextInt(8));
+            delivery.setDistrict("Comas");
+            delivery.setCity("Lima");
+            delivery.setProgramCode("PRG-0001");
+            delivery.setProgramName("Food Bank");
+            delivery.setProgramType("FOOD");
+            delivery.setProductDescription("Rice 5kg");
+            delivery.setQuantityDelivered(1 + random.nextInt(20));
+            delivery.setUnitValue(random.nextDouble() * 50);
+            delivery.setTotalValue(random.nextDouble() * 1000);
+            delivery.setCreatedByName("Admin");
+            delivery.setCreatedAt(createdAt);
+            deliveries.add(delivery);
+        }
+
+        moneyRequest = ("{\"donorId\":12,\"amount\":\"150.50\",\"currencyId\":2,"
+                + "\"programId\":3,\"notes\":\"Monthly contribution\"}").getBytes();
+
+        controller = new DonationController();
+        ReflectionTestUtils.setField(controller, "donationService", new StubDonationService());
+    }
+
+    @Benchmark
+    public byte[] serializeDonations() throws Exception {
+        return objectMapper.writeValueAsBytes(donations);
+    }
+
+    @Benchmark
+    public byte[] serializeDeliveries() throws Exception {
+        return objectMapper.writeValueAsBytes(deliveries);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> registerMoneyDonation() throws Exception {
+        Map<String, Object> request = objectMapper.readValue(moneyRequest, REQUEST_TYPE);
+        return controller.registerMoneyDonation(request);
+    }
+
+    /**
+     * Service stand-in so only parsing and controller work is measured
+     */
+    static class StubDonationService extends DonationService {
+        @Override
+        public Long registerMoneyDonation(Long donorId, Double amount, Long currencyId,
+                                          Long programId, String notes, Long createdBy) {
+            return donorId + currencyId + programId;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.hopecare.repository;
+
+import com.hopecare.model.Delivery;
+import com.hopecare.model.Donation;
+import com.hopecare.model.Donor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row Mapper Benchmark
+ * Maps a page of synthetic rows through the Donor, Donation and Delivery
+ * row mappers (the /api/list and export hot path, minus the driver).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RowMapperBenchmark {
+
+    private static final String[] DONOR_COLUMNS = {
+            "donor_id", "donor_code", "full_name", "email", "phone", "donor_type", "address",
+            "is_active", "created_at", "total_donations", "total_value_pen", "last_donation_date"};
+
+    private static final String[] DONATION_COLUMNS = {
+            "donation_id", "donation_code", "donation_date", "donor_code", "donor_name", "donor_type",
+            "donation_type_name", "original_amount", "currency_code", "currency_symbol", "amount_in_pen",
+            "product_description", "quantity", "unit_value", "program_code", "program_name", "notes",
+            "created_by_name", "created_at"};
+
+    private static final String[] DELIVERY_COLUMNS = {
+            "delivery_id", "delivery_code", "delivery_date", "status", "beneficiary_code",
+            "beneficiary_name", "family_size", "district", "city", "program_code", "program_name",
+            "program_type", "product_description", "quantity_delivered", "unit_value", "total_value",
+            "notes", "created_by_name", "approved_by_name", "created_at"};
+
+    @Param({"50", "500"})
+    private int rows;
+
+    private ResultSet donorRows;
+    private ResultSet donationRows;
+    private ResultSet deliveryRows;
+
+    private final DatabaseRepository.DonorRowMapper donorMapper = new DatabaseRepository.DonorRowMapper();
+    private final DatabaseRepository.DonationRowMapper donationMapper = new DatabaseRepository.DonationRowMapper();
+    private final DatabaseRepository.DeliveryRowMapper deliveryMapper = new DatabaseRepository.DeliveryRowMapper();
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        long now = 1_700_000_000_000L;
+
+        Object[][] donors = new Object[rows][];
+        Object[][] donations = new Object[rows][];
+        Object[][] deliveries = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            Timestamp createdAt = new Timestamp(now - random.nextInt(1_000_000_000));
+            boolean money = random.nextBoolean();
+
+            donors[i] = new Object[]{
+                    (long) i + 1, String.format("DON-%06d", i + 1), "Donor " + i, "donor" + i + "@mail.pe",
+                    "9" + (10_000_000 + random.nextInt(89_999_999)), random.nextBoolean() ? "PERSON" : "COMPANY",
+                    "Av. Arequipa " + random.nextInt(5000), "Y", createdAt, random.nextInt(40),
+                    random.nextDouble() * 10_000, createdAt};
+
+            donations[i] = new Object[]{
+                    (long) i + 1, String.format("DNT-%06d", i + 1), createdAt, String.format("DON-%06d", i + 1),
+                    "Donor " + i, "PERSON", money ? "MONEY" : "PRODUCT",
+                    money ? random.nextDouble() * 1000 : null, money ? "USD" : null, money ? "$" : null,
+                    random.nextDouble() * 3700, money ? null : "Rice 5kg", money ? null : random.nextInt(100),
+                    money ? null : random.nextDouble() * 50, "PRG-0001", "Food Bank", null, "Admin", createdAt};
+
+            deliveries[i] = new Object[]{
+                    (long) i + 1, String.format("DEL-%06d", i + 1), createdAt, "COMPLETED",
+                    String.format("BEN-%06d", i + 1), "Beneficiary " + i, 1 + random.nextInt(8), "Comas", "Lima",
+                    "PRG-0001", "Food Bank", "FOOD", "Rice 5kg", 1 + random.nextInt(20),
+                    random.nextDouble() * 50, random.nextDouble() * 1000, null, "Admin", null, createdAt};
+        }
+
+        donorRows = SyntheticResultSet.of(DONOR_COLUMNS, donors);
+        donationRows = SyntheticResultSet.of(DONATION_COLUMNS, donations);
+        deliveryRows = SyntheticResultSet.of(DELIVERY_COLUMNS, deliveries);
+    }
+
+    @Benchmark
+    public void mapDonors(Blackhole blackhole) throws SQLException {
+        donorRows.beforeFirst();
+        for (int i = 0; donorRows.next(); i++) {
+            Donor donor = donorMapper.mapRow(donorRows, i);
+            blackhole.consume(donor);
+        }
+    }
+
+    @Benchmark
+    public void mapDonations(Blackhole blackhole) throws SQLException {
+        donationRows.beforeFirst();
+        for (int i = 0; donationRows.next(); i++) {
+            Donation donation = donationMapper.mapRow(donationRows, i);
+            blackhole.consume(donation);
+        }
+    }
+
+    @Benchmark
+    public void mapDeliveries(Blackhole blackhole) throws SQLException {
+        deliveryRows.beforeFirst();
+        for (int i = 0; deliveryRows.next(); i++) {
+            Delivery delivery = deliveryMapper.mapRow(deliveryRows, i);
+            blackhole.consume(delivery);
+        }
+    }
+}
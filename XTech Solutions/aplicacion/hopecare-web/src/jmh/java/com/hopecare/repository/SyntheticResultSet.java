@@ -0,0 +1,61 @@
+package com.hopecare.repository;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthetic ResultSet
+ * In-memory, forward-only ResultSet over pre-generated rows so the row
+ * mappers can be measured without a database. Only the getters used by
+ * the mappers are supported.
+ */
+final class SyntheticResultSet {
+
+    private SyntheticResultSet() {}
+
+    static ResultSet of(String[] columns, Object[][] rows) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            index.put(columns[i], i);
+        }
+        int[] cursor = {-1};
+
+        return (ResultSet) Proxy.newProxyInstance(
+                SyntheticResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++cursor[0] < rows.length;
+                        case "beforeFirst":
+                            cursor[0] = -1;
+                            return null;
+                        case "close":
+                            return null;
+                        default:
+                            break;
+                    }
+                    Object value = rows[cursor[0]][index.get((String) args[0])];
+                    switch (method.getName()) {
+                        case "getString":
+                            return value;
+                        case "getLong":
+                            return value == null ? 0L : ((Number) value).longValue();
+                        case "getInt":
+                            return value == null ? 0 : ((Number) value).intValue();
+                        case "getDouble":
+                            return value == null ? 0.0 : ((Number) value).doubleValue();
+                        case "getDate":
+                            return value == null ? null : new Date(((Timestamp) value).getTime());
+                        case "getTimestamp":
+                            return value;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
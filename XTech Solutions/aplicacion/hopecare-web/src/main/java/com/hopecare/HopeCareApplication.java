@@ -2,12 +2,14 @@ package com.hopecare;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * HopeCare Donation Management System
  * Main Application Class
  */
 @SpringBootApplication
+@EnableScheduling
 public class HopeCareApplication {
 
     public static void main(String[] args) {
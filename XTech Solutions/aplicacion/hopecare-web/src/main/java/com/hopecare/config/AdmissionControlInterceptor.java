@@ -0,0 +1,180 @@
+package com.hopecare.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hopecare.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission Control Interceptor
+ * Token-bucket rate limits for the /api endpoints, per session user and
+ * endpoint class (reads, writes, reports) plus one global bucket per
+ * class, so a polling tab cannot take the whole connection pool. Requests
+ * over the limit get an immediate 429 with Retry-After instead of queueing
+ * for a connection. Rejections are counted as hopecare.admission.rejections
+ * (tags: class, scope). Only the initial dispatch is charged: the async
+ * re-dispatch of a streamed export or SSE stream passes through.
+ */
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    public static final String READS = "reads";
+    public static final String WRITES = "writes";
+    public static final String REPORTS = "reports";
+
+    public static final String METRIC_NAME = "hopecare.admission";
+
+    private static final List<String> CLASSES = List.of(READS, WRITES, REPORTS);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${hopecare.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hopecare.admission.reads.user-per-second:10}")
+    private double readsUserRate;
+    @Value("${hopecare.admission.reads.user-burst:20}")
+    private double readsUserBurst;
+    @Value("${hopecare.admission.reads.global-per-second:100}")
+    private double readsGlobalRate;
+    @Value("${hopecare.admission.reads.global-burst:150}")
+    private double readsGlobalBurst;
+
+    @Value("${hopecare.admission.writes.user-per-second:5}")
+    private double writesUserRate;
+    @Value("${hopecare.admission.writes.user-burst:10}")
+    private double writesUserBurst;
+    @Value("${hopecare.admission.writes.global-per-second:50}")
+    private double writesGlobalRate;
+    @Value("${hopecare.admission.writes.global-burst:75}")
+    private double writesGlobalBurst;
+
+    @Value("${hopecare.admission.reports.user-per-second:1}")
+    private double reportsUserRate;
+    @Value("${hopecare.admission.reports.user-burst:3}")
+    private double reportsUserBurst;
+    @Value("${hopecare.admission.reports.global-per-second:5}")
+    private double reportsGlobalRate;
+    @Value("${hopecare.admission.reports.global-burst:10}")
+    private double reportsGlobalBurst;
+
+    private final Map<String, double[]> userLimits = new HashMap<>();
+    private final Map<String, TokenBucket> globalBuckets = new HashMap<>();
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        userLimits.put(READS, new double[]{readsUserBurst, readsUserRate});
+        userLimits.put(WRITES, new double[]{writesUserBurst, writesUserRate});
+        userLimits.put(REPORTS, new double[]{reportsUserBurst, reportsUserRate});
+        globalBuckets.put(READS, new TokenBucket(readsGlobalBurst, readsGlobalRate));
+        globalBuckets.put(WRITES, new TokenBucket(writesGlobalBurst, writesGlobalRate));
+        globalBuckets.put(REPORTS, new TokenBucket(reportsGlobalBurst, reportsGlobalRate));
+        for (String endpointClass : CLASSES) {
+            for (String scope : List.of("user", "global")) {
+                rejections.put(endpointClass + ":" + scope, Counter.builder(METRIC_NAME + ".rejections")
+                        .description("API requests rejected by admission control")
+                        .tag("class", endpointClass)
+                        .tag("scope", scope)
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true; // the response of an async re-dispatch is already committed
+        }
+        String endpointClass = classify(request);
+
+        HttpSession session = request.getSession(false);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        TokenBucket userBucket = null;
+        if (user != null) {
+            double[] limit = userLimits.get(endpointClass);
+            userBucket = userBuckets.computeIfAbsent(user.getUserId() + ":" + endpointClass,
+                    key -> new TokenBucket(limit[0], limit[1]));
+            long waitNanos = userBucket.tryAcquire();
+            if (waitNanos > 0) {
+                return reject(response, endpointClass, "user", waitNanos);
+            }
+        }
+
+        long waitNanos = globalBuckets.get(endpointClass).tryAcquire();
+        if (waitNanos > 0) {
+            if (userBucket != null) {
+                userBucket.refund();
+            }
+            return reject(response, endpointClass, "global", waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Drop the buckets of idle users (a full bucket behaves like a new one)
+     */
+    @Scheduled(fixedDelayString = "${hopecare.admission.cleanup-interval-ms:300000}")
+    public void evictIdleBuckets() {
+        userBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    /**
+     * Reports and exports hold connections longest; other non-GET calls write.
+     * Report job polls, downloads and cancels are served from memory, only
+     * submitting a job counts as a report.
+     */
+    private String classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        boolean reportJobCall = path.startsWith("/reports/api/jobs") && !"POST".equals(method);
+        if ((path.startsWith("/reports/") && !reportJobCall) || path.contains("/api/export")) {
+            return REPORTS;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return READS;
+        }
+        return WRITES;
+    }
+
+    private boolean reject(HttpServletResponse response, String endpointClass, String scope, long waitNanos)
+            throws Exception {
+        rejections.get(endpointClass + ":" + scope).increment();
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("success", false);
+        error.put("message", "Too many " + endpointClass + " requests, retry in " + retryAfterSeconds + " s");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+        return false;
+    }
+}
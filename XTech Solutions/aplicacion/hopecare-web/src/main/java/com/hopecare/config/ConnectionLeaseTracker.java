@@ -0,0 +1,398 @@
+package com.hopecare.config;
+
+import com.hopecare.model.ConnectionLease;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Connection Lease Tracker
+ * Wraps the connection pools so every checkout is a tracked lease: the
+ * repository method that took the connection (and the controller method
+ * above it), the hold time and the statements it prepared. Leases held
+ * longer than hopecare.connection-leases.slow-threshold-ms get the stack
+ * of their thread sampled and logged once, and are kept in a short
+ * history. getDiagnostics() is the live "who holds connections now" view
+ * next to the pool figures; hold times are timed as
+ * hopecare.connection.lease (tags: pool, operation), statements per lease
+ * as hopecare.connection.lease.statements and slow leases counted as
+ * hopecare.connection.lease.slow.
+ */
+@Component
+public class ConnectionLeaseTracker {
+
+    public static final String METRIC_NAME = "hopecare.connection.lease";
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionLeaseTracker.class);
+
+    private static final String APP_PACKAGE = "com.hopecare.";
+    private static final String CONFIG_PACKAGE = "com.hopecare.config.";
+    private static final String CONTROLLER_PACKAGE = "com.hopecare.controller.";
+    private static final String REPOSITORY_PACKAGE = "com.hopecare.repository.";
+
+    private static final Set<String> EXECUTE_METHODS =
+        Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private static final int MAX_SQL_LENGTH = 300;
+    private static final int MAX_STACK_FRAMES = 40;
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.connection-leases.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hopecare.connection-leases.slow-threshold-ms:2000}")
+    private long slowThresholdMs;
+
+    @Value("${hopecare.connection-leases.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${hopecare.connection-leases.slow-history:50}")
+    private int slowHistory;
+
+    private final AtomicLong leaseIds = new AtomicLong();
+    private final Map<Long, Lease> active = new ConcurrentHashMap<>();
+    private final Deque<ConnectionLease> recentSlow = new ArrayDeque<>(); // guarded by itself
+    private final Map<String, HikariDataSource> pools = new ConcurrentHashMap<>();
+
+    /**
+     * DataSource handing out tracked connections of the given pool
+     */
+    public DataSource track(HikariDataSource pool) {
+        String poolName = pool.getPoolName();
+        pools.put(poolName, pool);
+        if (!enabled) {
+            return pool;
+        }
+        return new DelegatingDataSource(pool) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return lease(poolName, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return lease(poolName, super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * Pool figures, open leases (longest held first), recent slow leases and hold-time summaries
+     */
+    public Map<String, Object> getDiagnostics() {
+        Map<String, Object> diagnostics = new LinkedHashMap<>();
+
+        List<Map<String, Object>> poolStats = new ArrayList<>();
+        pools.forEach((name, pool) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("pool", name);
+            stats.put("maximumPoolSize", pool.getMaximumPoolSize());
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean(); // null until the pool starts
+            stats.put("active", mxBean != null ? mxBean.getActiveConnections() : null);
+            stats.put("idle", mxBean != null ? mxBean.getIdleConnections() : null);
+            stats.put("total", mxBean != null ? mxBean.getTotalConnections() : null);
+            stats.put("waiting", mxBean != null ? mxBean.getThreadsAwaitingConnection() : null);
+            poolStats.add(stats);
+        });
+        diagnostics.put("pools", poolStats);
+        diagnostics.put("slowThresholdMs", slowThresholdMs);
+
+        long now = System.nanoTime();
+        diagnostics.put("leases", active.values().stream()
+                .map(lease -> snapshot(lease, now - lease.acquiredNanos))
+                .sorted(Comparator.comparing(ConnectionLease::getHeldMs).reversed())
+                .collect(Collectors.toList()));
+        synchronized (recentSlow) {
+            diagnostics.put("recentSlowLeases", new ArrayList<>(recentSlow));
+        }
+
+        List<Map<String, Object>> holdTimes = new ArrayList<>();
+        for (Timer timer : meterRegistry.find(METRIC_NAME).timers()) {
+            HistogramSnapshot histogram = timer.takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("pool", timer.getId().getTag("pool"));
+            summary.put("operation", timer.getId().getTag("operation"));
+            summary.put("count", histogram.count());
+            summary.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+            summary.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms", percentile.value(TimeUnit.MILLISECONDS));
+            }
+            holdTimes.add(summary);
+        }
+        holdTimes.sort(Comparator.comparing(summary -> -((Number) summary.get("count")).longValue()));
+        diagnostics.put("holdTimes", holdTimes);
+        return diagnostics;
+    }
+
+    /**
+     * Sample the stack of leases held past the slow threshold (once per lease)
+     */
+    @Scheduled(fixedDelayString = "${hopecare.connection-leases.sample-interval-ms:1000}")
+    public void sampleSlowLeases() {
+        long threshold = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        long now = System.nanoTime();
+        for (Lease lease : active.values()) {
+            if (lease.stack == null && now - lease.acquiredNanos >= threshold) {
+                lease.stack = Arrays.stream(lease.thread.getStackTrace())
+                        .limit(MAX_STACK_FRAMES)
+                        .map(StackTraceElement::toString)
+                        .collect(Collectors.toList());
+                log.warn("Connection lease #{} ({} pool) held {} ms by {} from {} on {}, {} statements so far",
+                         lease.id, lease.pool, TimeUnit.NANOSECONDS.toMillis(now - lease.acquiredNanos),
+                         lease.operation, lease.caller, lease.thread.getName(), lease.statementCount());
+            }
+        }
+    }
+
+    private Connection lease(String pool, Connection connection) {
+        Lease lease = new Lease(leaseIds.incrementAndGet(), pool, Thread.currentThread());
+        locateOwner(lease);
+        active.put(lease.id, lease);
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new LeasedConnection(connection, lease));
+    }
+
+    private void release(Lease lease) {
+        if (active.remove(lease.id) == null) {
+            return; // closed twice
+        }
+        long heldNanos = System.nanoTime() - lease.acquiredNanos;
+        Timer.builder(METRIC_NAME)
+                .description("Time a pooled connection was held")
+                .tag("pool", lease.pool)
+                .tag("operation", lease.operation)
+                .register(meterRegistry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(METRIC_NAME + ".statements")
+                .description("Statements prepared per connection lease")
+                .tag("pool", lease.pool)
+                .register(meterRegistry)
+                .record(lease.statementCount());
+
+        if (heldNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            Counter.builder(METRIC_NAME + ".slow")
+                    .description("Connection leases held longer than the slow threshold")
+                    .tag("pool", lease.pool)
+                    .register(meterRegistry)
+                    .increment();
+            ConnectionLease slow = snapshot(lease, heldNanos);
+            synchronized (recentSlow) {
+                recentSlow.addFirst(slow);
+                while (recentSlow.size() > slowHistory) {
+                    recentSlow.removeLast();
+                }
+            }
+        }
+    }
+
+    /**
+     * Outermost repository frame as the operation (innermost application
+     * frame when no repository is involved), innermost controller frame as
+     * the caller
+     */
+    private void locateOwner(Lease lease) {
+        String[] owner = WALKER.walk(frames -> {
+            String repository = null;
+            String application = null;
+            String controller = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APP_PACKAGE) || className.startsWith(CONFIG_PACKAGE)) {
+                    continue;
+                }
+                String method = simpleName(className) + "." + frame.getMethodName();
+                if (className.startsWith(CONTROLLER_PACKAGE)) {
+                    controller = method;
+                    break;
+                }
+                if (className.startsWith(REPOSITORY_PACKAGE)) {
+                    repository = method;
+                } else if (application == null) {
+                    application = method;
+                }
+            }
+            return new String[]{repository != null ? repository : application, controller};
+        });
+        lease.operation = owner[0] != null ? owner[0] : "unknown";
+        lease.caller = owner[1];
+    }
+
+    private ConnectionLease snapshot(Lease lease, long heldNanos) {
+        ConnectionLease snapshot = new ConnectionLease();
+        snapshot.setLeaseId(lease.id);
+        snapshot.setPool(lease.pool);
+        snapshot.setOperation(lease.operation);
+        snapshot.setCaller(lease.caller);
+        snapshot.setThread(lease.thread.getName());
+        snapshot.setAcquiredAt(new Timestamp(lease.acquiredAtMillis));
+        snapshot.setHeldMs(TimeUnit.NANOSECONDS.toMillis(heldNanos));
+        synchronized (lease) {
+            snapshot.setStatementCount(lease.statementCount);
+            snapshot.setStatements(new ArrayList<>(lease.statements));
+        }
+        snapshot.setStack(lease.stack);
+        return snapshot;
+    }
+
+    private void record(Lease lease, Object sql) {
+        synchronized (lease) {
+            lease.statementCount++;
+            if (lease.statements.size() < maxStatements && sql instanceof String) {
+                String text = ((String) sql).replaceAll("\\s+", " ").trim();
+                lease.statements.add(text.length() > MAX_SQL_LENGTH ? text.substring(0, MAX_SQL_LENGTH) + "..." : text);
+            }
+        }
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int proxySuffix = name.indexOf("$$");
+        return proxySuffix > 0 ? name.substring(0, proxySuffix) : name;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * One checkout; owner fields are written before the lease is published
+     */
+    private static final class Lease {
+        private final long id;
+        private final String pool;
+        private final Thread thread;
+        private final long acquiredNanos = System.nanoTime();
+        private final long acquiredAtMillis = System.currentTimeMillis();
+        private String operation;
+        private String caller;
+        private int statementCount = 0;                         // guarded by this
+        private final List<String> statements = new ArrayList<>(); // guarded by this
+        private volatile List<String> stack;
+
+        Lease(long id, String pool, Thread thread) {
+            this.id = id;
+            this.pool = pool;
+            this.thread = thread;
+        }
+
+        synchronized int statementCount() {
+            return statementCount;
+        }
+    }
+
+    /**
+     * Connection handed to the application: records statements, ends the lease on close
+     */
+    private final class LeasedConnection implements InvocationHandler {
+        private final Connection target;
+        private final Lease lease;
+
+        LeasedConnection(Connection target, Lease lease) {
+            this.target = target;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Connection lease #" + lease.id + " [" + target + "]";
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    release(lease);
+                    break;
+                case "prepareStatement":
+                case "prepareCall":
+                    record(lease, args[0]);
+                    break;
+                default:
+                    break;
+            }
+            Object result = ConnectionLeaseTracker.invoke(target, method, args);
+            if (result instanceof Statement && "createStatement".equals(method.getName())) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                        new Class<?>[]{Statement.class}, new LeasedStatement((Statement) result, lease));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Plain statement: the SQL is only known when it is executed
+     */
+    private final class LeasedStatement implements InvocationHandler {
+        private final Statement target;
+        private final Lease lease;
+
+        LeasedStatement(Statement target, Lease lease) {
+            this.target = target;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args.length > 0) {
+                record(lease, args[0]);
+            }
+            return ConnectionLeaseTracker.invoke(target, method, args);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hopecare.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * DataSource Configuration
+ * Primary pool (spring.datasource.*), optional read pool
+ * (hopecare.datasource.read.*, sized on its own) and the routing DataSource
+ * in front of them that everything else uses; connections of both pools
+ * are tracked by ConnectionLeaseTracker
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Primary pool: all writes, and reads outside @ReadOnly methods
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    /**
+     * Read pool, only when hopecare.datasource.read.url is set
+     */
+    @Bean
+    @ConditionalOnProperty("hopecare.datasource.read.url")
+    @ConfigurationProperties("hopecare.datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties,
+                                           @Value("${hopecare.datasource.read.url}") String url,
+                                           @Value("${hopecare.datasource.read.username:${spring.datasource.username}}") String username,
+                                           @Value("${hopecare.datasource.read.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.READ);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * DataSource used by JdbcTemplate, the transaction manager and the procedure calls
+     */
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                 @Qualifier("readDataSource") ObjectProvider<HikariDataSource> readDataSource,
+                                                 ConnectionLeaseTracker leaseTracker) {
+        HikariDataSource read = readDataSource.getIfAvailable();
+        return new ReadWriteRoutingDataSource(leaseTracker.track(primaryDataSource),
+                                              read != null ? leaseTracker.track(read) : null);
+    }
+}
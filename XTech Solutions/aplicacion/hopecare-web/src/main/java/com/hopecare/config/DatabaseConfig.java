@@ -11,7 +11,7 @@ import javax.sql.DataSource;
 
 /**
  * Database & Web Configuration
- * Configures JDBC Template and Security Interceptor
+ * Configures JDBC Template, Security and Admission Control Interceptors
  */
 @Configuration
 public class DatabaseConfig implements WebMvcConfigurer {
@@ -22,21 +22,28 @@ public class DatabaseConfig implements WebMvcConfigurer {
     @Autowired
     private SecurityInterceptor securityInterceptor;
 
+    @Autowired
+    private AdmissionControlInterceptor admissionControlInterceptor;
+
     /**
-     * JDBC Template Bean
+     * JDBC Template Bean (honours per-thread deadlines, see DeadlineAwareJdbcTemplate)
      */
     @Bean
     public JdbcTemplate jdbcTemplate() {
-        return new JdbcTemplate(dataSource);
+        return new DeadlineAwareJdbcTemplate(dataSource);
     }
 
     /**
-     * Register Security Interceptor
+     * Register Security and Admission Control Interceptors
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(securityInterceptor)
                 .addPathPatterns("/**")
                 .excludePathPatterns("/login", "/api/login", "/css/**", "/js/**", "/api/session");
+
+        // Rate limits apply once the user is known
+        registry.addInterceptor(admissionControlInterceptor)
+                .addPathPatterns("/*/api/**");
     }
 }
\ No newline at end of file
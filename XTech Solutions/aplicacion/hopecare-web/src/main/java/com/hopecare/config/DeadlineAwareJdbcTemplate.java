@@ -0,0 +1,59 @@
+package com.hopecare.config;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline-Aware JDBC Template
+ * JdbcTemplate that honours a per-thread deadline: every statement created
+ * while one is set gets the remaining time as its query timeout, and no
+ * statement starts once it has passed. Lets callers bound a whole unit of
+ * work without opening a transaction (and holding a connection) for it.
+ */
+public class DeadlineAwareJdbcTemplate extends JdbcTemplate {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    public DeadlineAwareJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    /**
+     * Run work with a deadline (System.nanoTime based) applied to its statements
+     */
+    public static <T> T withDeadline(long deadlineNanos, Supplier<T> work) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(previous != null ? Math.min(previous, deadlineNanos) : deadlineNanos);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                DEADLINE.set(previous);
+            } else {
+                DEADLINE.remove();
+            }
+        }
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        Long deadline = DEADLINE.get();
+        if (deadline != null) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                throw new QueryTimeoutException("Deadline passed before the statement could start");
+            }
+            int remainingSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999));
+            if (stmt.getQueryTimeout() == 0 || remainingSeconds < stmt.getQueryTimeout()) {
+                stmt.setQueryTimeout(remainingSeconds);
+            }
+        }
+    }
+}
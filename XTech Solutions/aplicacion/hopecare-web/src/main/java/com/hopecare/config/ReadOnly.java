@@ -0,0 +1,19 @@
+package com.hopecare.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read Only
+ * Marks a service method whose queries may be served by the read pool
+ * (see ReadWriteRoutingDataSource). Only for methods that never write,
+ * directly or through what they call, and that can tolerate replica lag.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
@@ -0,0 +1,29 @@
+package com.hopecare.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read Only Routing Aspect
+ * Runs methods annotated with @ReadOnly in a read-only routing scope, so
+ * the connections they take come from the read pool
+ */
+@Aspect
+@Component
+public class ReadOnlyRoutingAspect {
+
+    @Around("@annotation(com.hopecare.config.ReadOnly)")
+    public Object routeToReadPool(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (ReadWriteRoutingDataSource.isReadOnly()) {
+            return joinPoint.proceed();
+        }
+        ReadWriteRoutingDataSource.enterReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.exitReadOnly();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.hopecare.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Read/Write Routing DataSource
+ * Sends connections taken in a read-only scope (@ReadOnly service methods)
+ * to the read pool, which points at a replica or standby, and everything
+ * else to the primary pool. Work inside a transaction always stays on the
+ * primary. Reads fall back to the primary while the read pool is marked
+ * unusable (replica lag over the threshold, see ReplicaLagMonitor) and
+ * when it cannot hand out a connection, and for the rest of a web request
+ * that asked for fresh data (usePrimaryForRequest). Without a read pool
+ * every connection comes from the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String READ = "read";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final String PRIMARY_FOR_REQUEST = ReadWriteRoutingDataSource.class.getName() + ".PRIMARY";
+
+    private final DataSource primaryDataSource;
+    private final DataSource readDataSource;
+    private volatile boolean readPoolUsable = false;
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource readDataSource) {
+        this.primaryDataSource = primaryDataSource;
+        this.readDataSource = readDataSource;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primaryDataSource);
+        if (readDataSource != null) {
+            targets.put(READ, readDataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    /**
+     * Whether the current thread is in a read-only scope
+     */
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    /**
+     * Run work in a read-only scope, for background tasks that do not go
+     * through a @ReadOnly service method
+     */
+    public static <T> T withReadOnly(Supplier<T> work) {
+        if (isReadOnly()) {
+            return work.get();
+        }
+        enterReadOnly();
+        try {
+            return work.get();
+        } finally {
+            exitReadOnly();
+        }
+    }
+
+    /**
+     * Keep the reads of the current web request on the primary (no-op
+     * outside a request), e.g. when its response is tagged with a version
+     * the replica may not have yet
+     */
+    public static void usePrimaryForRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_FOR_REQUEST, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isPrimaryForRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.getAttribute(PRIMARY_FOR_REQUEST, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    static void enterReadOnly() {
+        READ_ONLY.set(Boolean.TRUE);
+    }
+
+    static void exitReadOnly() {
+        READ_ONLY.remove();
+    }
+
+    /**
+     * Whether a separate read pool is configured
+     */
+    public boolean hasReadPool() {
+        return readDataSource != null;
+    }
+
+    /**
+     * Whether reads currently go to the read pool
+     */
+    public boolean isReadPoolUsable() {
+        return readPoolUsable;
+    }
+
+    public void setReadPoolUsable(boolean usable) {
+        this.readPoolUsable = usable && readDataSource != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readPoolUsable && isReadOnly() && !TransactionSynchronizationManager.isActualTransactionActive()
+                && !isPrimaryForRequest()) {
+            return READ;
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (READ.equals(determineCurrentLookupKey())) {
+            try {
+                return readDataSource.getConnection();
+            } catch (SQLException e) {
+                // Re-enabled by the next successful lag check
+                readPoolUsable = false;
+                log.warn("Read pool unavailable, reads go to the primary: {}", e.getMessage());
+            }
+        }
+        return primaryDataSource.getConnection();
+    }
+}
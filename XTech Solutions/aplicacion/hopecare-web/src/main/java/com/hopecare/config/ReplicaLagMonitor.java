@@ -0,0 +1,156 @@
+package com.hopecare.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replica Lag Monitor
+ * Decides whether reads may use the read pool. On every check the time is
+ * stamped into tbl_replication_heartbeat on the primary and read back from
+ * the replica: the age of the replica's stamp is its lag. Reads go back to
+ * the primary while the lag exceeds hopecare.datasource.read.max-lag-ms or
+ * the replica cannot be read, and return to the replica once it catches
+ * up. With max-lag-ms=0 only connectivity is checked (two independent
+ * databases, e.g. for local testing). Checks run on a thread of their
+ * own, so long scheduled jobs (reconciliations, index rebuilds) cannot
+ * delay them while the replica falls behind.
+ * Reported as hopecare.datasource.replica.lag (ms) and
+ * hopecare.datasource.replica.usable.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    public static final String METRIC_NAME = "hopecare.datasource.replica";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String HEARTBEAT_UPDATE =
+        "UPDATE tbl_replication_heartbeat SET beat_ms = ? WHERE heartbeat_id = 1";
+    private static final String HEARTBEAT_SELECT =
+        "SELECT beat_ms FROM tbl_replication_heartbeat WHERE heartbeat_id = 1";
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("readDataSource")
+    private ObjectProvider<DataSource> readDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.datasource.read.max-lag-ms:30000}")
+    private long maxLagMs;
+
+    @Value("${hopecare.datasource.read.check-timeout-seconds:5}")
+    private int checkTimeoutSeconds;
+
+    @Value("${hopecare.datasource.read.lag-check-interval-ms:5000}")
+    private long checkIntervalMs;
+
+    private DataSource read;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate readJdbc;
+    private volatile long lagMs = -1;
+    private ScheduledExecutorService checker;
+
+    @PostConstruct
+    public void init() {
+        read = readDataSource.getIfAvailable();
+        if (read == null) {
+            return;
+        }
+        primaryJdbc = new JdbcTemplate(primaryDataSource);
+        primaryJdbc.setQueryTimeout(checkTimeoutSeconds);
+        readJdbc = new JdbcTemplate(read);
+        readJdbc.setQueryTimeout(checkTimeoutSeconds);
+
+        Gauge.builder(METRIC_NAME + ".lag", () -> lagMs)
+                .description("Replica lag measured through tbl_replication_heartbeat, -1 when unknown")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".usable", () -> routingDataSource.isReadPoolUsable() ? 1 : 0)
+                .description("Whether reads are routed to the read pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start checking once the application is up (reads use the primary until then)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (read == null || checker != null) {
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * Measure the lag and switch reads between the replica and the primary
+     */
+    public void check() {
+        if (read == null) {
+            return;
+        }
+        boolean usable;
+        try {
+            if (maxLagMs <= 0) {
+                try (Connection connection = read.getConnection()) {
+                    usable = connection.isValid(checkTimeoutSeconds);
+                }
+            } else {
+                long now = System.currentTimeMillis();
+                primaryJdbc.update(HEARTBEAT_UPDATE, now);
+                Long beat = readJdbc.queryForObject(HEARTBEAT_SELECT, Long.class);
+                lagMs = beat != null ? Math.max(0, now - beat) : -1;
+                usable = lagMs >= 0 && lagMs <= maxLagMs;
+            }
+        } catch (Exception e) {
+            lagMs = -1;
+            usable = false;
+            log.warn("Replica check failed: {}", e.getMessage());
+        }
+
+        boolean wasUsable = routingDataSource.isReadPoolUsable();
+        routingDataSource.setReadPoolUsable(usable);
+        if (wasUsable && !usable) {
+            log.warn("Reads moved to the primary (replica lag {} ms, limit {} ms)", lagMs, maxLagMs);
+        } else if (!wasUsable && usable) {
+            log.info("Reads routed to the read pool (replica lag {} ms)", lagMs);
+        }
+    }
+}
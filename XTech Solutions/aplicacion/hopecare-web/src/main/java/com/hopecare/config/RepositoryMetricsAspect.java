@@ -0,0 +1,44 @@
+package com.hopecare.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repository Metrics Aspect
+ * Times every public DatabaseRepository method as hopecare.repository
+ * (tags: method, outcome). Controller handlers are timed by Spring as
+ * http.server.requests and stored procedures by StoredProcedureGateway.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    public static final String METRIC_NAME = "hopecare.repository";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.hopecare.repository.DatabaseRepository.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("DatabaseRepository method latency")
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
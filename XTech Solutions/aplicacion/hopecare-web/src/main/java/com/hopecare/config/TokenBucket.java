@@ -0,0 +1,56 @@
+package com.hopecare.config;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Bucket
+ * Holds up to capacity tokens, refilled continuously at a fixed rate.
+ * Each admitted request takes one token.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;          // guarded by this
+    private long lastRefillNanos;   // guarded by this
+
+    TokenBucket(double capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take a token; returns 0 when admitted, otherwise the nanoseconds until one is available
+     */
+    synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Give back a token taken for a request that was rejected further on
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Whether the bucket is full (an idle client)
+     */
+    synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -1,13 +1,21 @@
 package com.hopecare.controller;
 
 import com.hopecare.model.Beneficiary;
+import com.hopecare.model.PageResult;
 import com.hopecare.service.BeneficiaryService;
+import com.hopecare.service.ExportService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +32,12 @@ public class BeneficiaryController {
     @Autowired
     private BeneficiaryService beneficiaryService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Show beneficiaries page
      */
@@ -39,14 +53,23 @@ public class BeneficiaryController {
     }
 
     /**
-     * Get all beneficiaries (AJAX)
+     * Get beneficiaries page by page (AJAX)
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public ResponseEntity<?> getAllBeneficiaries() {
+    public ResponseEntity<?> getAllBeneficiaries(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size,
+                                                 WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.BENEFICIARIES, Entity.DELIVERIES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            List<Beneficiary> beneficiaries = beneficiaryService.getAllBeneficiaries();
-            return ResponseEntity.ok(beneficiaries);
+            PageResult<Beneficiary> page = beneficiaryService.getBeneficiariesPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse(e.getMessage()));
@@ -115,6 +138,26 @@ public class BeneficiaryController {
         }
     }
 
+    /**
+     * Export beneficiaries as NDJSON or CSV, streamed from the database cursor
+     */
+    @GetMapping("/api/export")
+    public ResponseEntity<StreamingResponseBody> exportBeneficiaries(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        String exportFormat;
+        try {
+            exportFormat = exportService.validateFormat(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportBeneficiaries(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportService.getContentType(exportFormat)))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"beneficiaries." + exportFormat + "\"")
+                .body(body);
+    }
+
     /**
      * Helper method to create error response
      */
@@ -1,19 +1,32 @@
 package com.hopecare.controller;
 
 import com.hopecare.model.Delivery;
+import com.hopecare.model.DeliveryBatchEntry;
+import com.hopecare.model.PageResult;
 import com.hopecare.service.BeneficiaryService;
 import com.hopecare.service.DeliveryService;
+import com.hopecare.service.ExportService;
+import com.hopecare.service.ParallelPageLoader;
 import com.hopecare.service.ProgramService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Delivery Controller
@@ -26,23 +39,33 @@ public class DeliveryController {
     @Autowired
     private DeliveryService deliveryService;
 
+    @Autowired
+    private ExportService exportService;
+
     @Autowired
     private BeneficiaryService beneficiaryService;
 
     @Autowired
     private ProgramService programService;
 
+    @Autowired
+    private ParallelPageLoader pageLoader;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Show deliveries page
      */
     @GetMapping
     public String deliveriesPage(Model model) {
         try {
-            List<Delivery> deliveries = deliveryService.getAllDeliveries();
-            model.addAttribute("deliveries", deliveries);
-            model.addAttribute("beneficiaries", beneficiaryService.getAllBeneficiaries());
-            model.addAttribute("programs", programService.getAllPrograms());
-            model.addAttribute("inventory", deliveryService.getInventoryStatus());
+            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+            queries.put("deliveries", deliveryService::getAllDeliveries);
+            queries.put("beneficiaries", beneficiaryService::getAllBeneficiaries);
+            queries.put("programs", programService::getProgramOptions);
+            queries.put("inventory", deliveryService::getInventoryStatus);
+            model.addAllAttributes(pageLoader.load("deliveries", queries));
         } catch (Exception e) {
             model.addAttribute("error", "Error loading deliveries: " + e.getMessage());
         }
@@ -50,14 +73,23 @@ public class DeliveryController {
     }
 
     /**
-     * Get all deliveries (AJAX)
+     * Get deliveries page by page (AJAX)
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public ResponseEntity<?> getAllDeliveries() {
+    public ResponseEntity<?> getAllDeliveries(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DELIVERIES, Entity.BENEFICIARIES, Entity.PROGRAMS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            List<Delivery> deliveries = deliveryService.getAllDeliveries();
-            return ResponseEntity.ok(deliveries);
+            PageResult<Delivery> page = deliveryService.getDeliveriesPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse(e.getMessage()));
@@ -69,7 +101,11 @@ public class DeliveryController {
      */
     @GetMapping("/api/inventory")
     @ResponseBody
-    public ResponseEntity<?> getInventoryStatus() {
+    public ResponseEntity<?> getInventoryStatus(WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DONATIONS, Entity.DELIVERIES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
             List<Map<String, Object>> inventory = deliveryService.getInventoryStatus();
             return ResponseEntity.ok(inventory);
@@ -116,6 +152,67 @@ public class DeliveryController {
         }
     }
 
+    /**
+     * Dispatch many deliveries of one program product at once (AJAX)
+     * Body: programId, productDescription, optional notes, and entries of
+     * beneficiaryId + quantity (+ optional notes)
+     */
+    @PostMapping("/api/bulk")
+    @ResponseBody
+    public ResponseEntity<?> dispatchDeliveries(@RequestBody Map<String, Object> request) {
+        try {
+            Long programId = request.get("programId") != null ?
+                    Long.valueOf(request.get("programId").toString()) : null;
+            String productDescription = request.get("productDescription") != null ?
+                    request.get("productDescription").toString() : null;
+            String notes = request.get("notes") != null ? request.get("notes").toString() : "";
+            Long createdBy = 2L; // Default to assistant
+
+            List<DeliveryBatchEntry> entries = new ArrayList<>();
+            if (request.get("entries") instanceof List) {
+                List<?> rawEntries = (List<?>) request.get("entries");
+                for (int i = 0; i < rawEntries.size(); i++) {
+                    Map<?, ?> entry = rawEntries.get(i) instanceof Map ? (Map<?, ?>) rawEntries.get(i) : Map.of();
+                    entries.add(new DeliveryBatchEntry(i,
+                            entry.get("beneficiaryId") != null ? Long.valueOf(entry.get("beneficiaryId").toString()) : null,
+                            entry.get("quantity") != null ? Integer.valueOf(entry.get("quantity").toString()) : null,
+                            entry.get("notes") != null ? entry.get("notes").toString() : notes));
+                }
+            }
+
+            Map<String, Object> response = new HashMap<>(
+                    deliveryService.dispatchDeliveries(programId, productDescription, entries, createdBy));
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Error dispatching deliveries: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Export the full delivery history as NDJSON or CSV, streamed from the database cursor
+     */
+    @GetMapping("/api/export")
+    public ResponseEntity<StreamingResponseBody> exportDeliveries(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        String exportFormat;
+        try {
+            exportFormat = exportService.validateFormat(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportDeliveries(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportService.getContentType(exportFormat)))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"deliveries." + exportFormat + "\"")
+                .body(body);
+    }
+
     /**
      * Helper method to create error response
      */
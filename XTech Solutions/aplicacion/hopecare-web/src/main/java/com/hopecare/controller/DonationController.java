@@ -1,19 +1,35 @@
 package com.hopecare.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hopecare.model.Donation;
+import com.hopecare.model.PageResult;
 import com.hopecare.service.DonationService;
+import com.hopecare.service.ExportService;
+import com.hopecare.service.ParallelPageLoader;
 import com.hopecare.service.DonorService;
 import com.hopecare.service.ProgramService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Donation Controller
@@ -26,23 +42,36 @@ public class DonationController {
     @Autowired
     private DonationService donationService;
 
+    @Autowired
+    private ExportService exportService;
+
     @Autowired
     private DonorService donorService;
 
     @Autowired
     private ProgramService programService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ParallelPageLoader pageLoader;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Show donations page
      */
     @GetMapping
     public String donationsPage(Model model) {
         try {
-            List<Donation> donations = donationService.getAllDonations();
-            model.addAttribute("donations", donations);
-            model.addAttribute("donors", donorService.getAllDonors());
-            model.addAttribute("programs", programService.getAllPrograms());
-            model.addAttribute("currencies", donationService.getCurrencies());
+            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+            queries.put("donations", donationService::getAllDonations);
+            queries.put("donors", donorService::getAllDonors);
+            queries.put("programs", programService::getProgramOptions);
+            queries.put("currencies", donationService::getCurrencies);
+            model.addAllAttributes(pageLoader.load("donations", queries));
         } catch (Exception e) {
             model.addAttribute("error", "Error loading donations: " + e.getMessage());
         }
@@ -50,14 +79,23 @@ public class DonationController {
     }
 
     /**
-     * Get all donations (AJAX)
+     * Get donations page by page (AJAX)
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public ResponseEntity<?> getAllDonations() {
+    public ResponseEntity<?> getAllDonations(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size,
+                                             WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DONATIONS, Entity.DONORS, Entity.PROGRAMS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            List<Donation> donations = donationService.getAllDonations();
-            return ResponseEntity.ok(donations);
+            PageResult<Donation> page = donationService.getDonationsPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse(e.getMessage()));
@@ -79,6 +117,20 @@ public class DonationController {
         }
     }
 
+    /**
+     * Get donation types (AJAX)
+     */
+    @GetMapping("/api/donation-types")
+    @ResponseBody
+    public ResponseEntity<?> getDonationTypes() {
+        try {
+            return ResponseEntity.ok(donationService.getDonationTypes());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Register money donation (AJAX)
      */
@@ -143,6 +195,77 @@ public class DonationController {
         }
     }
 
+    /**
+     * Register a batch of money and product donations (AJAX, JSON array)
+     */
+    @PostMapping(value = "/api/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> registerDonationBatch(@RequestBody List<Map<String, Object>> requests) {
+        return registerBatch(requests);
+    }
+
+    /**
+     * Register a batch of donations sent as NDJSON, one donation per line
+     */
+    @PostMapping(value = "/api/batch", consumes = "application/x-ndjson")
+    @ResponseBody
+    public ResponseEntity<?> registerDonationBatchNdjson(InputStream body) {
+        List<Map<String, Object>> requests = new ArrayList<>();
+        try (MappingIterator<Map<String, Object>> lines = objectMapper.readerFor(Map.class).readValues(body)) {
+            while (lines.hasNext()) {
+                requests.add(lines.next());
+            }
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse("Invalid NDJSON body: " + e.getMessage()));
+        }
+        return registerBatch(requests);
+    }
+
+    /**
+     * Export the full donation history as NDJSON or CSV, streamed from the database cursor
+     */
+    @GetMapping("/api/export")
+    public ResponseEntity<StreamingResponseBody> exportDonations(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        String exportFormat;
+        try {
+            exportFormat = exportService.validateFormat(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportDonations(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportService.getContentType(exportFormat)))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"donations." + exportFormat + "\"")
+                .body(body);
+    }
+
+    /**
+     * Helper method to run a batch and summarize per-item results
+     */
+    private ResponseEntity<?> registerBatch(List<Map<String, Object>> requests) {
+        try {
+            List<Map<String, Object>> results = donationService.registerDonationBatch(requests, 1L);
+            long registered = results.stream().filter(r -> Boolean.TRUE.equals(r.get("success"))).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("total", results.size());
+            response.put("registered", registered);
+            response.put("failed", results.size() - registered);
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse("Error registering donation batch: " + e.getMessage()));
+        }
+    }
+
     /**
      * Helper method to create error response
      */
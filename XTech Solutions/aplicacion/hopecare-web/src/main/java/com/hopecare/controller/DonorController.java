@@ -1,13 +1,21 @@
 package com.hopecare.controller;
 
 import com.hopecare.model.Donor;
+import com.hopecare.model.PageResult;
 import com.hopecare.service.DonorService;
+import com.hopecare.service.ExportService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +32,12 @@ public class DonorController {
     @Autowired
     private DonorService donorService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Show donors page
      */
@@ -39,14 +53,46 @@ public class DonorController {
     }
 
     /**
-     * Get all donors (AJAX)
+     * Get donors page by page (AJAX)
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public ResponseEntity<?> getAllDonors() {
+    public ResponseEntity<?> getAllDonors(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DONORS, Entity.DONATIONS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
-            List<Donor> donors = donorService.getAllDonors();
-            return ResponseEntity.ok(donors);
+            PageResult<Donor> page = donorService.getDonorsPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the top donors by donated value in PEN, optionally of one donor type (AJAX)
+     */
+    @GetMapping("/api/top")
+    @ResponseBody
+    public ResponseEntity<?> getTopDonors(@RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String donorType,
+                                          WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DONORS, Entity.DONATIONS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(donorService.getTopDonors(limit, donorType));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(createErrorResponse(e.getMessage()));
@@ -130,6 +176,26 @@ public class DonorController {
         }
     }
 
+    /**
+     * Export donors as NDJSON or CSV, streamed from the database cursor
+     */
+    @GetMapping("/api/export")
+    public ResponseEntity<StreamingResponseBody> exportDonors(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        String exportFormat;
+        try {
+            exportFormat = exportService.validateFormat(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> exportService.exportDonors(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportService.getContentType(exportFormat)))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"donors." + exportFormat + "\"")
+                .body(body);
+    }
+
     /**
      * Helper method to create error response
      */
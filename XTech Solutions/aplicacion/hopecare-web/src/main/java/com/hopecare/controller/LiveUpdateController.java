@@ -0,0 +1,41 @@
+package com.hopecare.controller;
+
+import com.hopecare.service.LiveUpdateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live Update Controller
+ * Server-sent event stream of dashboard metric and inventory changes
+ */
+@Controller
+@RequestMapping("/live")
+public class LiveUpdateController {
+
+    @Autowired
+    private LiveUpdateService liveUpdates;
+
+    /**
+     * Subscribe to live updates (EventSource)
+     * Events: "metrics" (changed dashboard metrics, all of them first) and
+     * "inventory" (program products whose stock changed)
+     */
+    @GetMapping(value = "/api/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            return ResponseEntity.ok(liveUpdates.subscribe());
+        } catch (IllegalStateException e) {
+            // The page falls back to its normal refresh
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .build();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hopecare.controller;
 
 import com.hopecare.model.User;
 import com.hopecare.service.AuthService;
+import com.hopecare.service.LastLoginWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,6 +22,9 @@ public class LoginController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private LastLoginWriter lastLoginWriter;
+
     /**
      * Show login page
      */
@@ -52,6 +56,7 @@ public class LoginController {
         if (user != null) {
             // Crear sesión
             session.setAttribute("user", user);
+            lastLoginWriter.record(user.getUserId());
             System.out.println("✅ Session created for: " + user.getFullName());
             return "redirect:/";
         } else {
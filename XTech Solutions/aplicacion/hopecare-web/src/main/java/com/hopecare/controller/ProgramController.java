@@ -2,12 +2,15 @@ package com.hopecare.controller;
 
 import com.hopecare.model.Program;
 import com.hopecare.service.ProgramService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,6 +27,9 @@ public class ProgramController {
     @Autowired
     private ProgramService programService;
 
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Show programs page
      */
@@ -43,7 +49,11 @@ public class ProgramController {
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public ResponseEntity<?> getAllPrograms() {
+    public ResponseEntity<?> getAllPrograms(WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.PROGRAMS, Entity.DONATIONS, Entity.DELIVERIES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
             List<Program> programs = programService.getAllPrograms();
             return ResponseEntity.ok(programs);
@@ -99,7 +109,11 @@ public class ProgramController {
      */
     @GetMapping("/api/inventory")
     @ResponseBody
-    public ResponseEntity<?> getInventoryStatus() {
+    public ResponseEntity<?> getInventoryStatus(WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DONATIONS, Entity.DELIVERIES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
             List<Map<String, Object>> inventory = programService.getInventoryStatus();
             return ResponseEntity.ok(inventory);
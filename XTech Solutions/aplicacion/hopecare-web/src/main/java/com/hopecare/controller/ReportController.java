@@ -1,17 +1,41 @@
 package com.hopecare.controller;
 
+import com.hopecare.config.ConnectionLeaseTracker;
+import com.hopecare.model.ReportJob;
+import com.hopecare.repository.StoredProcedureGateway;
+import com.hopecare.service.AreaRollupService;
 import com.hopecare.service.DeliveryService;
+import com.hopecare.service.DonationRollupService;
+import com.hopecare.service.DonorLeaderboardService;
+import com.hopecare.service.ParallelPageLoader;
+import com.hopecare.service.ExportService;
+import com.hopecare.service.ReferenceDataCache;
+import com.hopecare.service.ReportJobService;
+import com.hopecare.service.DataVersionService;
+import com.hopecare.service.DataVersionService.Entity;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Report Controller
@@ -24,15 +48,47 @@ public class ReportController {
     @Autowired
     private DeliveryService deliveryService;
 
+    @Autowired
+    private StoredProcedureGateway procedureGateway;
+
+    @Autowired
+    private ParallelPageLoader pageLoader;
+
+    @Autowired
+    private ReferenceDataCache referenceData;
+
+    @Autowired
+    private AreaRollupService areaRollup;
+
+    @Autowired
+    private DonationRollupService donationRollups;
+
+    @Autowired
+    private DonorLeaderboardService leaderboard;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    @Autowired
+    private ConnectionLeaseTracker leaseTracker;
+
+    @Autowired
+    private ReportJobService reportJobs;
+
+    @Autowired
+    private ExportService exportService;
+
     /**
      * Show reports page
      */
     @GetMapping
     public String reportsPage(Model model) {
         try {
-            Map<String, Object> metrics = deliveryService.getDashboardMetrics();
-            model.addAttribute("metrics", metrics);
-            model.addAttribute("inventory", deliveryService.getInventoryStatus());
+            Map<String, Supplier<?>> queries = new LinkedHashMap<>();
+            queries.put("metrics", deliveryService::getDashboardMetrics);
+            queries.put("inventory", deliveryService::getInventoryStatus);
+            queries.put("topDonors", () -> leaderboard.getTopDonors(DonorLeaderboardService.DEFAULT_LIMIT, null));
+            model.addAllAttributes(pageLoader.load("reports", queries));
         } catch (Exception e) {
             model.addAttribute("error", "Error loading reports: " + e.getMessage());
         }
@@ -44,7 +100,11 @@ public class ReportController {
      */
     @GetMapping("/api/dashboard")
     @ResponseBody
-    public ResponseEntity<?> getDashboardMetrics() {
+    public ResponseEntity<?> getDashboardMetrics(WebRequest request) {
+        String etag = dataVersions.etag(request, Entity.DASHBOARD);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         try {
             Map<String, Object> metrics = deliveryService.getDashboardMetrics();
             return ResponseEntity.ok(metrics);
@@ -54,6 +114,210 @@ public class ReportController {
         }
     }
 
+    /**
+     * Get beneficiary and delivery totals per district and city (AJAX)
+     * level=district rolls cities up into their district
+     */
+    @GetMapping("/api/areas")
+    @ResponseBody
+    public ResponseEntity<?> getAreaRollups(@RequestParam(required = false) String district,
+                                            @RequestParam(required = false) String level) {
+        try {
+            return ResponseEntity.ok(areaRollup.getRollups(district, level));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Get donation totals for a date range from the rollup buckets (AJAX)
+     * period=day|month|year|total, groupBy=program,type,currency,donorType
+     */
+    @GetMapping("/api/donations")
+    @ResponseBody
+    public ResponseEntity<?> getDonationRollups(@RequestParam String from,
+                                                @RequestParam String to,
+                                                @RequestParam(required = false) String period,
+                                                @RequestParam(required = false) String groupBy,
+                                                @RequestParam(required = false) Long programId,
+                                                @RequestParam(required = false) String donationType,
+                                                @RequestParam(required = false) String donorType) {
+        try {
+            return ResponseEntity.ok(donationRollups.getRollups(from, to, period, groupBy,
+                                                                programId, donationType, donorType));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * List the reports that can be run as jobs and their parameters (AJAX)
+     */
+    @GetMapping("/api/jobs/reports")
+    @ResponseBody
+    public ResponseEntity<?> getJobReports() {
+        return ResponseEntity.ok(reportJobs.getReports());
+    }
+
+    /**
+     * Submit a report job: {"report": "top_donors", "parameters": {"limit": 20}} (AJAX)
+     * Answers 202 with the job; an identical request gets the existing job.
+     */
+    @PostMapping("/api/jobs")
+    @ResponseBody
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<?> submitJob(@RequestBody Map<String, Object> request, HttpSession session) {
+        try {
+            Object parameters = request.get("parameters");
+            if (parameters != null && !(parameters instanceof Map)) {
+                throw new IllegalArgumentException("parameters must be an object");
+            }
+            ReportJob job = reportJobs.submit(request.get("report") != null ? request.get("report").toString() : null,
+                                              (Map<String, Object>) parameters, session.getId());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Report job " + job.getStatus().toLowerCase());
+            response.put("job", job);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * List report jobs, newest first (AJAX)
+     */
+    @GetMapping("/api/jobs")
+    @ResponseBody
+    public ResponseEntity<?> getJobs() {
+        return ResponseEntity.ok(reportJobs.getJobs());
+    }
+
+    /**
+     * Poll a report job (AJAX)
+     */
+    @GetMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        ReportJob job = reportJobs.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Report job not found or expired"));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Get a completed report job's result: json (columns and rows), ndjson or csv download
+     */
+    @GetMapping("/api/jobs/{jobId}/result")
+    @ResponseBody
+    public ResponseEntity<?> getJobResult(@PathVariable String jobId,
+                                          @RequestParam(defaultValue = "json") String format) {
+        try {
+            if ("json".equalsIgnoreCase(format.trim())) {
+                Map<String, Object> result = reportJobs.getResult(jobId);
+                if (result == null) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(createErrorResponse("Report job not found or expired"));
+                }
+                return ResponseEntity.ok(result);
+            }
+            String exportFormat = exportService.validateFormat(format);
+            // Results are capped by hopecare.report-jobs.max-rows, so they are written in one go
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (!reportJobs.exportResult(jobId, exportFormat, out)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Report job not found or expired"));
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportService.getContentType(exportFormat)))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"report-" + jobId + "." + exportFormat + "\"")
+                    .body(out.toByteArray());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Cancel a queued or running report job (AJAX)
+     * A job shared with other sessions keeps running for them.
+     */
+    @DeleteMapping("/api/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId, HttpSession session) {
+        ReportJob job = reportJobs.cancel(jobId, session.getId());
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Report job not found or expired"));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Report job " + job.getStatus().toLowerCase());
+        response.put("job", job);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Get stored procedure call statistics (AJAX)
+     */
+    @GetMapping("/api/procedures")
+    @ResponseBody
+    public ResponseEntity<?> getProcedureStatistics() {
+        return ResponseEntity.ok(procedureGateway.getStatistics());
+    }
+
+    /**
+     * Get connection pool usage: who holds connections now, recent slow
+     * leases and hold times per operation (AJAX)
+     */
+    @GetMapping("/api/connections")
+    @ResponseBody
+    public ResponseEntity<?> getConnectionLeases() {
+        return ResponseEntity.ok(leaseTracker.getDiagnostics());
+    }
+
+    /**
+     * Get reference data cache statistics (AJAX)
+     */
+    @GetMapping("/api/cache")
+    @ResponseBody
+    public ResponseEntity<?> getCacheStatistics() {
+        return ResponseEntity.ok(referenceData.getStatistics());
+    }
+
+    /**
+     * Drop cached reference data after out-of-band changes (AJAX)
+     */
+    @PostMapping("/api/cache/invalidate")
+    @ResponseBody
+    public ResponseEntity<?> invalidateCache() {
+        referenceData.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Reference data cache cleared");
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Helper method to create error response
      */
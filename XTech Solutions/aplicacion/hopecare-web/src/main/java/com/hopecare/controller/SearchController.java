@@ -0,0 +1,64 @@
+package com.hopecare.controller;
+
+import com.hopecare.model.SearchResult;
+import com.hopecare.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Search Controller
+ * Handles the global search box across donors, beneficiaries, programs,
+ * donations and deliveries
+ */
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    /**
+     * Search all entities by name or code (AJAX)
+     * Optional types filter, e.g. types=DONOR,PROGRAM
+     */
+    @GetMapping("/api")
+    @ResponseBody
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(required = false) String types,
+                                    @RequestParam(required = false) Integer limit) {
+        try {
+            List<SearchResult> results = searchIndex.search(q, SearchIndexService.parseTypes(types), limit);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("query", q);
+            response.put("count", results.size());
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, Object> createErrorResponse(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("message", message);
+        return error;
+    }
+}
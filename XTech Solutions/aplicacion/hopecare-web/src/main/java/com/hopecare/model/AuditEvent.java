@@ -0,0 +1,48 @@
+package com.hopecare.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Audit Event
+ * One donation or delivery change to be written to tbl_audit_donations /
+ * tbl_audit_deliveries by the application audit writer
+ */
+public class AuditEvent {
+    public static final String DONATION = "DONATION";
+    public static final String DELIVERY = "DELIVERY";
+
+    public static final String INSERT = "INSERT";
+
+    private String entity;
+    private Long entityId;
+    private String actionType;
+    private Long changedBy;
+    private Timestamp changedAt;
+
+    // Constructors
+    public AuditEvent() {}
+
+    public AuditEvent(String entity, Long entityId, String actionType, Long changedBy, Timestamp changedAt) {
+        this.entity = entity;
+        this.entityId = entityId;
+        this.actionType = actionType;
+        this.changedBy = changedBy;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public String getEntity() { return entity; }
+    public void setEntity(String entity) { this.entity = entity; }
+
+    public Long getEntityId() { return entityId; }
+    public void setEntityId(Long entityId) { this.entityId = entityId; }
+
+    public String getActionType() { return actionType; }
+    public void setActionType(String actionType) { this.actionType = actionType; }
+
+    public Long getChangedBy() { return changedBy; }
+    public void setChangedBy(Long changedBy) { this.changedBy = changedBy; }
+
+    public Timestamp getChangedAt() { return changedAt; }
+    public void setChangedAt(Timestamp changedAt) { this.changedAt = changedAt; }
+}
@@ -0,0 +1,56 @@
+package com.hopecare.model;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Connection Lease
+ * Snapshot of one pooled connection checkout: who took it, for how long
+ * and what it ran (the stack is sampled only for slow leases)
+ */
+public class ConnectionLease {
+    private Long leaseId;
+    private String pool;
+    private String operation; // repository (or service) method that took the connection
+    private String caller;    // controller method, null for background work
+    private String thread;
+    private Timestamp acquiredAt;
+    private Long heldMs;
+    private Integer statementCount;
+    private List<String> statements;
+    private List<String> stack;
+
+    // Constructors
+    public ConnectionLease() {}
+
+    // Getters and Setters
+    public Long getLeaseId() { return leaseId; }
+    public void setLeaseId(Long leaseId) { this.leaseId = leaseId; }
+
+    public String getPool() { return pool; }
+    public void setPool(String pool) { this.pool = pool; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public String getCaller() { return caller; }
+    public void setCaller(String caller) { this.caller = caller; }
+
+    public String getThread() { return thread; }
+    public void setThread(String thread) { this.thread = thread; }
+
+    public Timestamp getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(Timestamp acquiredAt) { this.acquiredAt = acquiredAt; }
+
+    public Long getHeldMs() { return heldMs; }
+    public void setHeldMs(Long heldMs) { this.heldMs = heldMs; }
+
+    public Integer getStatementCount() { return statementCount; }
+    public void setStatementCount(Integer statementCount) { this.statementCount = statementCount; }
+
+    public List<String> getStatements() { return statements; }
+    public void setStatements(List<String> statements) { this.statements = statements; }
+
+    public List<String> getStack() { return stack; }
+    public void setStack(List<String> stack) { this.stack = stack; }
+}
@@ -0,0 +1,41 @@
+package com.hopecare.model;
+
+/**
+ * Delivery Batch Entry
+ * One beneficiary/quantity line of a bulk delivery dispatch
+ */
+public class DeliveryBatchEntry {
+    private int index; // position in the request
+    private Long beneficiaryId;
+    private Integer quantity;
+    private String notes;
+
+    // Filled in once dispatched
+    private Long deliveryId;
+
+    // Constructors
+    public DeliveryBatchEntry() {}
+
+    public DeliveryBatchEntry(int index, Long beneficiaryId, Integer quantity, String notes) {
+        this.index = index;
+        this.beneficiaryId = beneficiaryId;
+        this.quantity = quantity;
+        this.notes = notes;
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Long getBeneficiaryId() { return beneficiaryId; }
+    public void setBeneficiaryId(Long beneficiaryId) { this.beneficiaryId = beneficiaryId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public Long getDeliveryId() { return deliveryId; }
+    public void setDeliveryId(Long deliveryId) { this.deliveryId = deliveryId; }
+}
@@ -0,0 +1,83 @@
+package com.hopecare.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Donation Batch Item
+ * One money or product donation of a batch ingestion request
+ */
+public class DonationBatchItem {
+    public static final String MONEY = "MONEY";
+    public static final String PRODUCT = "PRODUCT";
+
+    private int index; // position in the request
+    private String type;
+    private Long donorId;
+    private Long programId;
+
+    // Money donation fields
+    private Double amount;
+    private Long currencyId;
+
+    // Product donation fields
+    private String productDescription;
+    private Integer quantity;
+    private Double unitValue;
+
+    private String notes;
+    private Long createdBy;
+
+    // Filled in while processing
+    private BigDecimal valuePen;
+    private Long donationId;
+
+    // Constructors
+    public DonationBatchItem() {}
+
+    public DonationBatchItem(int index, String type) {
+        this.index = index;
+        this.type = type;
+    }
+
+    public boolean isMoney() { return MONEY.equals(type); }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getDonorId() { return donorId; }
+    public void setDonorId(Long donorId) { this.donorId = donorId; }
+
+    public Long getProgramId() { return programId; }
+    public void setProgramId(Long programId) { this.programId = programId; }
+
+    public Double getAmount() { return amount; }
+    public void setAmount(Double amount) { this.amount = amount; }
+
+    public Long getCurrencyId() { return currencyId; }
+    public void setCurrencyId(Long currencyId) { this.currencyId = currencyId; }
+
+    public String getProductDescription() { return productDescription; }
+    public void setProductDescription(String productDescription) { this.productDescription = productDescription; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Double getUnitValue() { return unitValue; }
+    public void setUnitValue(Double unitValue) { this.unitValue = unitValue; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public Long getCreatedBy() { return createdBy; }
+    public void setCreatedBy(Long createdBy) { this.createdBy = createdBy; }
+
+    public BigDecimal getValuePen() { return valuePen; }
+    public void setValuePen(BigDecimal valuePen) { this.valuePen = valuePen; }
+
+    public Long getDonationId() { return donationId; }
+    public void setDonationId(Long donationId) { this.donationId = donationId; }
+}
@@ -0,0 +1,37 @@
+package com.hopecare.model;
+
+import java.util.List;
+
+/**
+ * Page Result
+ * One page of a keyset-paginated list plus the cursor for the next page
+ */
+public class PageResult<T> {
+    private List<T> items;
+    private String nextCursor; // null when there are no more rows
+    private Integer size;
+    private Boolean hasMore;
+
+    // Constructors
+    public PageResult() {}
+
+    public PageResult(List<T> items, String nextCursor, Integer size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+        this.hasMore = nextCursor != null;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
@@ -0,0 +1,63 @@
+package com.hopecare.model;
+
+import java.sql.Timestamp;
+import java.util.Map;
+
+/**
+ * Report Job
+ * Snapshot of an asynchronous PKG_REPORTS run: what was asked for, where
+ * it stands and, once finished, how many rows it produced and until when
+ * the result is kept
+ */
+public class ReportJob {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    private String jobId;
+    private String report;
+    private Map<String, Object> parameters;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    private Timestamp submittedAt;
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+    private Timestamp expiresAt;
+    private Integer rowCount;
+    private String error;
+
+    // Constructors
+    public ReportJob() {}
+
+    // Getters and Setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getReport() { return report; }
+    public void setReport(String report) { this.report = report; }
+
+    public Map<String, Object> getParameters() { return parameters; }
+    public void setParameters(Map<String, Object> parameters) { this.parameters = parameters; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Timestamp getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(Timestamp submittedAt) { this.submittedAt = submittedAt; }
+
+    public Timestamp getStartedAt() { return startedAt; }
+    public void setStartedAt(Timestamp startedAt) { this.startedAt = startedAt; }
+
+    public Timestamp getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Timestamp finishedAt) { this.finishedAt = finishedAt; }
+
+    public Timestamp getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Timestamp expiresAt) { this.expiresAt = expiresAt; }
+
+    public Integer getRowCount() { return rowCount; }
+    public void setRowCount(Integer rowCount) { this.rowCount = rowCount; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,50 @@
+package com.hopecare.model;
+
+/**
+ * Search Result
+ * One donor, beneficiary, program, donation or delivery matched by the search index
+ */
+public class SearchResult {
+    public static final String DONOR = "DONOR";
+    public static final String BENEFICIARY = "BENEFICIARY";
+    public static final String PROGRAM = "PROGRAM";
+    public static final String DONATION = "DONATION";
+    public static final String DELIVERY = "DELIVERY";
+
+    private String type;
+    private Long id;
+    private String code;
+    private String name;   // donor/beneficiary/program name (donor or beneficiary for codes)
+    private String detail; // email, district, program type, date or program
+    private Integer score;
+
+    // Constructors
+    public SearchResult() {}
+
+    public SearchResult(String type, Long id, String code, String name, String detail) {
+        this.type = type;
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.detail = detail;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+
+    public Integer getScore() { return score; }
+    public void setScore(Integer score) { this.score = score; }
+}
@@ -3,18 +3,37 @@ package com.hopecare.repository;
 import com.hopecare.model.*;
 import oracle.jdbc.OracleTypes;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.core.SqlOutParameter;
-import org.springframework.jdbc.core.SqlParameter;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Database Repository
@@ -26,6 +45,21 @@ public class DatabaseRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private StoredProcedureGateway procedures;
+
+    @Autowired
+    private SequenceAllocator sequences;
+
+    @Value("${hopecare.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${hopecare.pagination.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${hopecare.export.fetch-size:1000}")
+    private int exportFetchSize;
+
     // ================================================================
     // DONOR OPERATIONS
     // ================================================================
@@ -35,18 +69,37 @@ public class DatabaseRepository {
      */
     public List<Donor> getAllDonors() {
         String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
-                    "address, is_active, created_at, total_donations, total_value_pen, " +
+                    "address, is_active, created_at, total_donations, " +
                     "last_donation_date FROM vw_donor_summary WHERE is_active = 'Y' " +
                     "ORDER BY full_name";
         return jdbcTemplate.query(sql, new DonorRowMapper());
     }
 
+    /**
+     * Get one page of active donors (newest first, keyset on created_at + donor_id)
+     * The page is cut from tbl_donors first; only its donors' donations are
+     * aggregated (same columns as vw_donor_summary).
+     */
+    public PageResult<Donor> getDonorsPage(String cursor, Integer size) {
+        String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
+                    "address, is_active, created_at FROM tbl_donors WHERE is_active = 'Y'";
+        String summarySql = "SELECT p.donor_id, p.donor_code, p.full_name, p.email, p.phone, p.donor_type, " +
+                    "p.address, p.is_active, p.created_at, COUNT(DISTINCT don.donation_id) AS total_donations, " +
+                    "MAX(don.donation_date) AS last_donation_date " +
+                    "FROM (%s) p LEFT JOIN tbl_donations don ON p.donor_id = don.donor_id " +
+                    "GROUP BY p.donor_id, p.donor_code, p.full_name, p.email, p.phone, p.donor_type, " +
+                    "p.address, p.is_active, p.created_at " +
+                    "ORDER BY p.created_at DESC, p.donor_id DESC";
+        return queryPage(sql, summarySql, "created_at", TIMESTAMP_KEY, "donor_id",
+                         new DonorRowMapper(), cursor, size);
+    }
+
     /**
      * Get donor by ID
      */
     public Donor getDonorById(Long donorId) {
         String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
-                    "address, is_active, created_at, total_donations, total_value_pen, " +
+                    "address, is_active, created_at, total_donations, " +
                     "last_donation_date FROM vw_donor_summary WHERE donor_id = ?";
         List<Donor> donors = jdbcTemplate.query(sql, new DonorRowMapper(), donorId);
         return donors.isEmpty() ? null : donors.get(0);
@@ -56,19 +109,7 @@ public class DatabaseRepository {
      * Register new donor using PL/SQL package
      */
     public Long registerDonor(Donor donor) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_DONORS")
-                .withProcedureName("REGISTER_DONOR")
-                .declareParameters(
-                        new SqlParameter("p_full_name", Types.VARCHAR),
-                        new SqlParameter("p_email", Types.VARCHAR),
-                        new SqlParameter("p_phone", Types.VARCHAR),
-                        new SqlParameter("p_donor_type", Types.VARCHAR),
-                        new SqlParameter("p_address", Types.VARCHAR),
-                        new SqlOutParameter("p_donor_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.REGISTER_DONOR,
                 donor.getFullName(),
                 donor.getEmail(),
                 donor.getPhone(),
@@ -83,18 +124,7 @@ public class DatabaseRepository {
      * Update donor using PL/SQL package
      */
     public void updateDonor(Donor donor) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_DONORS")
-                .withProcedureName("UPDATE_DONOR")
-                .declareParameters(
-                        new SqlParameter("p_donor_id", Types.NUMERIC),
-                        new SqlParameter("p_full_name", Types.VARCHAR),
-                        new SqlParameter("p_email", Types.VARCHAR),
-                        new SqlParameter("p_phone", Types.VARCHAR),
-                        new SqlParameter("p_address", Types.VARCHAR)
-                );
-
-        jdbcCall.execute(
+        procedures.execute(StoredProcedureGateway.UPDATE_DONOR,
                 donor.getDonorId(),
                 donor.getFullName(),
                 donor.getEmail(),
@@ -103,12 +133,33 @@ public class DatabaseRepository {
         );
     }
 
+    /**
+     * Get donors by ID, in the order given
+     */
+    public List<Donor> getDonorsByIds(List<Long> donorIds) {
+        List<Donor> donors = new ArrayList<>();
+        for (int from = 0; from < donorIds.size(); from += 1000) {
+            List<Long> chunk = donorIds.subList(from, Math.min(from + 1000, donorIds.size()));
+            String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
+                        "address, is_active, created_at, total_donations, " +
+                        "last_donation_date FROM vw_donor_summary WHERE donor_id IN (" +
+                        String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            donors.addAll(jdbcTemplate.query(sql, new DonorRowMapper(), chunk.toArray()));
+        }
+        Map<Long, Integer> position = new HashMap<>();
+        for (int i = 0; i < donorIds.size(); i++) {
+            position.putIfAbsent(donorIds.get(i), i);
+        }
+        donors.sort(Comparator.comparing(donor -> position.get(donor.getDonorId())));
+        return donors;
+    }
+
     /**
      * Search donors
      */
     public List<Donor> searchDonors(String searchTerm) {
         String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
-                    "address, is_active, created_at, total_donations, total_value_pen, " +
+                    "address, is_active, created_at, total_donations, " +
                     "last_donation_date FROM vw_donor_summary WHERE is_active = 'Y' " +
                     "AND (UPPER(full_name) LIKE ? OR UPPER(donor_code) LIKE ? OR UPPER(email) LIKE ?) " +
                     "ORDER BY full_name";
@@ -131,6 +182,29 @@ public class DatabaseRepository {
         return jdbcTemplate.query(sql, new BeneficiaryRowMapper());
     }
 
+    /**
+     * Get one page of active beneficiaries (newest first, keyset on created_at + beneficiary_id)
+     * The page is cut from tbl_beneficiaries first; only its beneficiaries'
+     * deliveries are aggregated (same columns as vw_beneficiary_summary).
+     */
+    public PageResult<Beneficiary> getBeneficiariesPage(String cursor, Integer size) {
+        String sql = "SELECT beneficiary_id, beneficiary_code, full_name, family_size, " +
+                    "phone, address, district, city, is_active, created_at " +
+                    "FROM tbl_beneficiaries WHERE is_active = 'Y'";
+        String summarySql = "SELECT p.beneficiary_id, p.beneficiary_code, p.full_name, p.family_size, " +
+                    "p.phone, p.address, p.district, p.city, p.is_active, p.created_at, " +
+                    "COUNT(DISTINCT d.delivery_id) AS total_deliveries, " +
+                    "SUM(CASE WHEN d.status = 'COMPLETED' THEN d.quantity_delivered ELSE 0 END) AS total_quantity_received, " +
+                    "SUM(CASE WHEN d.status = 'COMPLETED' THEN d.total_value ELSE 0 END) AS total_value_received_pen, " +
+                    "MAX(d.delivery_date) AS last_delivery_date " +
+                    "FROM (%s) p LEFT JOIN tbl_deliveries d ON p.beneficiary_id = d.beneficiary_id " +
+                    "GROUP BY p.beneficiary_id, p.beneficiary_code, p.full_name, p.family_size, " +
+                    "p.phone, p.address, p.district, p.city, p.is_active, p.created_at " +
+                    "ORDER BY p.created_at DESC, p.beneficiary_id DESC";
+        return queryPage(sql, summarySql, "created_at", TIMESTAMP_KEY, "beneficiary_id",
+                         new BeneficiaryRowMapper(), cursor, size);
+    }
+
     /**
      * Get beneficiary by ID
      */
@@ -147,21 +221,7 @@ public class DatabaseRepository {
      * Register new beneficiary using PL/SQL package
      */
     public Long registerBeneficiary(Beneficiary beneficiary) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_BENEFICIARIES")
-                .withProcedureName("REGISTER_BENEFICIARY")
-                .declareParameters(
-                        new SqlParameter("p_full_name", Types.VARCHAR),
-                        new SqlParameter("p_family_size", Types.NUMERIC),
-                        new SqlParameter("p_phone", Types.VARCHAR),
-                        new SqlParameter("p_address", Types.VARCHAR),
-                        new SqlParameter("p_district", Types.VARCHAR),
-                        new SqlParameter("p_city", Types.VARCHAR),
-                        new SqlParameter("p_notes", Types.VARCHAR),
-                        new SqlOutParameter("p_beneficiary_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.REGISTER_BENEFICIARY,
                 beneficiary.getFullName(),
                 beneficiary.getFamilySize(),
                 beneficiary.getPhone(),
@@ -178,21 +238,7 @@ public class DatabaseRepository {
      * Update beneficiary using PL/SQL package
      */
     public void updateBeneficiary(Beneficiary beneficiary) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_BENEFICIARIES")
-                .withProcedureName("UPDATE_BENEFICIARY")
-                .declareParameters(
-                        new SqlParameter("p_beneficiary_id", Types.NUMERIC),
-                        new SqlParameter("p_full_name", Types.VARCHAR),
-                        new SqlParameter("p_family_size", Types.NUMERIC),
-                        new SqlParameter("p_phone", Types.VARCHAR),
-                        new SqlParameter("p_address", Types.VARCHAR),
-                        new SqlParameter("p_district", Types.VARCHAR),
-                        new SqlParameter("p_city", Types.VARCHAR),
-                        new SqlParameter("p_notes", Types.VARCHAR)
-                );
-
-        jdbcCall.execute(
+        procedures.execute(StoredProcedureGateway.UPDATE_BENEFICIARY,
                 beneficiary.getBeneficiaryId(),
                 beneficiary.getFullName(),
                 beneficiary.getFamilySize(),
@@ -220,6 +266,16 @@ public class DatabaseRepository {
         return jdbcTemplate.query(sql, new ProgramRowMapper());
     }
 
+    /**
+     * Get active programs for dropdowns (tbl_programs only, no aggregates)
+     */
+    public List<Program> getProgramOptions() {
+        String sql = "SELECT program_id, program_code, program_name, description, program_type, " +
+                    "start_date, end_date, is_active, created_at " +
+                    "FROM tbl_programs WHERE is_active = 'Y' ORDER BY program_code";
+        return jdbcTemplate.query(sql, new ProgramOptionRowMapper());
+    }
+
     /**
      * Get program by ID
      */
@@ -237,19 +293,7 @@ public class DatabaseRepository {
      * Create new program using PL/SQL package
      */
     public Long createProgram(Program program) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_PROGRAMS")
-                .withProcedureName("CREATE_PROGRAM")
-                .declareParameters(
-                        new SqlParameter("p_program_name", Types.VARCHAR),
-                        new SqlParameter("p_description", Types.VARCHAR),
-                        new SqlParameter("p_program_type", Types.VARCHAR),
-                        new SqlParameter("p_start_date", Types.DATE),
-                        new SqlParameter("p_end_date", Types.DATE),
-                        new SqlOutParameter("p_program_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.CREATE_PROGRAM,
                 program.getProgramName(),
                 program.getDescription(),
                 program.getProgramType(),
@@ -276,6 +320,19 @@ public class DatabaseRepository {
         return jdbcTemplate.query(sql, new DonationRowMapper());
     }
 
+    /**
+     * Get one page of donations (newest first, keyset on donation_date + donation_id)
+     */
+    public PageResult<Donation> getDonationsPage(String cursor, Integer size) {
+        String sql = "SELECT donation_id, donation_code, donation_date, donor_code, donor_name, " +
+                    "donor_type, donation_type_name, original_amount, currency_code, currency_symbol, " +
+                    "amount_in_pen, product_description, quantity, unit_value, program_code, " +
+                    "program_name, notes, created_by_name, created_at " +
+                    "FROM vw_donation_details WHERE 1 = 1";
+        return queryPage(sql, null, "donation_date", DATE_KEY, "donation_id",
+                         new DonationRowMapper(), cursor, size);
+    }
+
     /**
      * Get currencies for dropdown
      */
@@ -285,25 +342,63 @@ public class DatabaseRepository {
         return jdbcTemplate.queryForList(sql);
     }
 
+    /**
+     * Get active donation types
+     */
+    public List<Map<String, Object>> getDonationTypes() {
+        String sql = "SELECT donation_type_id, type_code, type_name, description " +
+                    "FROM tbl_donation_types WHERE is_active = 'Y' ORDER BY type_code";
+        return jdbcTemplate.queryForList(sql);
+    }
+
+    /**
+     * Get all currencies (active or not) for rate lookups
+     */
+    public List<Map<String, Object>> getAllCurrencies() {
+        String sql = "SELECT currency_id, currency_code FROM tbl_currencies";
+        return jdbcTemplate.queryForList(sql);
+    }
+
+    /**
+     * Get active exchange rates into the given currency, oldest first
+     */
+    public List<Map<String, Object>> getActiveExchangeRates(Long toCurrencyId) {
+        String sql = "SELECT from_currency_id, exchange_rate, TRUNC(effective_date) AS effective_date " +
+                    "FROM tbl_exchange_rates WHERE to_currency_id = ? AND is_active = 'Y' " +
+                    "ORDER BY effective_date, exchange_rate_id";
+        return jdbcTemplate.queryForList(sql, toCurrencyId);
+    }
+
+    /**
+     * Count money donations per (currency, day, amount), for per-donation conversion in Java
+     */
+    public List<Map<String, Object>> getMoneyDonationCountsByCurrencyDayAndAmount() {
+        String sql = "SELECT d.currency_id, TRUNC(d.donation_date) AS donation_day, d.amount, " +
+                    "COUNT(*) AS donations " +
+                    "FROM tbl_donations d " +
+                    "JOIN tbl_donation_types dt ON d.donation_type_id = dt.donation_type_id " +
+                    "WHERE dt.type_code = 'MONEY' " +
+                    "GROUP BY d.currency_id, TRUNC(d.donation_date), d.amount";
+        return jdbcTemplate.queryForList(sql);
+    }
+
+    /**
+     * Get the total value of all product donations (already in PEN)
+     */
+    public BigDecimal getProductDonationsTotalValue() {
+        String sql = "SELECT NVL(SUM(d.quantity * NVL(d.unit_value, 0)), 0) " +
+                    "FROM tbl_donations d " +
+                    "JOIN tbl_donation_types dt ON d.donation_type_id = dt.donation_type_id " +
+                    "WHERE dt.type_code <> 'MONEY'";
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class);
+    }
+
     /**
      * Register money donation using PL/SQL package
      */
     public Long registerMoneyDonation(Long donorId, Double amount, Long currencyId, 
                                       Long programId, String notes, Long createdBy) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_DONATIONS")
-                .withProcedureName("REGISTER_MONEY_DONATION")
-                .declareParameters(
-                        new SqlParameter("p_donor_id", Types.NUMERIC),
-                        new SqlParameter("p_amount", Types.NUMERIC),
-                        new SqlParameter("p_currency_id", Types.NUMERIC),
-                        new SqlParameter("p_program_id", Types.NUMERIC),
-                        new SqlParameter("p_notes", Types.VARCHAR),
-                        new SqlParameter("p_created_by", Types.NUMERIC),
-                        new SqlOutParameter("p_donation_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.REGISTER_MONEY_DONATION,
                 donorId, amount, currencyId, programId, notes, createdBy
         );
 
@@ -316,27 +411,123 @@ public class DatabaseRepository {
     public Long registerProductDonation(Long donorId, String productDescription, 
                                         Integer quantity, Double unitValue, Long programId, 
                                         String notes, Long createdBy) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_DONATIONS")
-                .withProcedureName("REGISTER_PRODUCT_DONATION")
-                .declareParameters(
-                        new SqlParameter("p_donor_id", Types.NUMERIC),
-                        new SqlParameter("p_product_description", Types.VARCHAR),
-                        new SqlParameter("p_quantity", Types.NUMERIC),
-                        new SqlParameter("p_unit_value", Types.NUMERIC),
-                        new SqlParameter("p_program_id", Types.NUMERIC),
-                        new SqlParameter("p_notes", Types.VARCHAR),
-                        new SqlParameter("p_created_by", Types.NUMERIC),
-                        new SqlOutParameter("p_donation_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.REGISTER_PRODUCT_DONATION,
                 donorId, productDescription, quantity, unitValue, programId, notes, createdBy
         );
 
         return ((Number) result.get("p_donation_id")).longValue();
     }
 
+    /**
+     * Get which of the given donors exist and are active
+     */
+    public Set<Long> getActiveDonorIds(Collection<Long> donorIds) {
+        return getActiveIds("tbl_donors", "donor_id", donorIds);
+    }
+
+    /**
+     * Get which of the given programs exist and are active
+     */
+    public Set<Long> getActiveProgramIds(Collection<Long> programIds) {
+        return getActiveIds("tbl_programs", "program_id", programIds);
+    }
+
+    /**
+     * Insert a batch of validated donations in one transaction
+     * Mirrors PKG_DONATIONS.REGISTER_MONEY_DONATION / REGISTER_PRODUCT_DONATION
+     * (donation, program assignment, inventory) with one JDBC batch per table
+     * instead of one procedure call per donation. Items must already carry
+     * their PEN value. Returns the new donation IDs in item order.
+     */
+    @Transactional
+    public List<Long> insertDonationBatch(List<DonationBatchItem> items) {
+        List<Long> donationIds = sequences.next(SequenceAllocator.DONATIONS, items.size());
+
+        Map<String, Long> donationTypeIds = new HashMap<>();
+        List<Object[]> donations = new ArrayList<>(items.size());
+        List<Object[]> assignments = new ArrayList<>(items.size());
+        Map<String, Object[]> inventory = new LinkedHashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            DonationBatchItem item = items.get(i);
+            Long donationId = donationIds.get(i);
+            Long donationTypeId = donationTypeIds.computeIfAbsent(item.getType(), code -> jdbcTemplate.queryForObject(
+                    "SELECT donation_type_id FROM tbl_donation_types WHERE type_code = ?", Long.class, code));
+
+            donations.add(new Object[]{donationId, SequenceAllocator.codeNumber(donationId),
+                    item.getDonorId(), donationTypeId,
+                    item.getAmount(), item.getCurrencyId(), item.getProductDescription(),
+                    item.getQuantity(), item.getUnitValue(), item.getNotes(), item.getCreatedBy()});
+
+            assignments.add(new Object[]{donationId, item.getProgramId(),
+                    item.isMoney() ? 1 : item.getQuantity(), item.getValuePen(), item.getCreatedBy(),
+                    item.isMoney() ? "Auto-assigned money donation" : "Auto-assigned product donation"});
+
+            if (!item.isMoney()) {
+                // One MERGE per (program, product): quantities add up, last unit value wins
+                String key = item.getProgramId() + "|" + item.getProductDescription().toUpperCase(Locale.ROOT);
+                Object[] row = inventory.get(key);
+                if (row == null) {
+                    inventory.put(key, new Object[]{item.getProgramId(), item.getProductDescription(),
+                            item.getQuantity(), item.getUnitValue()});
+                } else {
+                    row[2] = (Integer) row[2] + item.getQuantity();
+                    row[3] = item.getUnitValue();
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tbl_donations (donation_id, donation_code, donor_id, donation_type_id, " +
+                "donation_date, amount, currency_id, product_description, quantity, unit_value, notes, " +
+                "created_by, created_at) VALUES (?, 'DON-' || TO_CHAR(SYSDATE, 'YYYY') || '-' || ?, " +
+                "?, ?, SYSDATE, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                donations,
+                new int[]{Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
+                          Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.VARCHAR, Types.NUMERIC});
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tbl_donation_assignments (assignment_id, donation_id, program_id, " +
+                "assigned_quantity, assigned_value, assigned_date, assigned_by, notes, created_at) " +
+                "VALUES (seq_donation_assignments.NEXTVAL, ?, ?, ?, ?, SYSDATE, ?, ?, CURRENT_TIMESTAMP)",
+                assignments,
+                new int[]{Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.VARCHAR});
+
+        if (!inventory.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "MERGE INTO tbl_program_inventory inv " +
+                    "USING (SELECT ? AS program_id, ? AS product_description, ? AS quantity, ? AS unit_value " +
+                    "FROM dual) src " +
+                    "ON (inv.program_id = src.program_id " +
+                    "AND UPPER(inv.product_description) = UPPER(src.product_description)) " +
+                    "WHEN MATCHED THEN UPDATE SET inv.available_quantity = inv.available_quantity + src.quantity, " +
+                    "inv.unit_value = src.unit_value, inv.last_updated = CURRENT_TIMESTAMP " +
+                    "WHEN NOT MATCHED THEN INSERT (inventory_id, program_id, product_description, " +
+                    "available_quantity, reserved_quantity, delivered_quantity, unit_value, last_updated) " +
+                    "VALUES (seq_program_inventory.NEXTVAL, src.program_id, src.product_description, " +
+                    "src.quantity, 0, 0, src.unit_value, CURRENT_TIMESTAMP)",
+                    new ArrayList<>(inventory.values()),
+                    new int[]{Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC});
+        }
+
+        return donationIds;
+    }
+
+    /**
+     * Filter IDs down to active rows (IN lists chunked to Oracle's 1000 limit)
+     */
+    private Set<Long> getActiveIds(String table, String idColumn, Collection<Long> ids) {
+        Set<Long> active = new HashSet<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = "SELECT " + idColumn + " FROM " + table + " WHERE is_active = 'Y' AND " + idColumn +
+                        " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            active.addAll(jdbcTemplate.queryForList(sql, Long.class, chunk.toArray()));
+        }
+        return active;
+    }
+
     // ================================================================
     // DELIVERY OPERATIONS
     // ================================================================
@@ -354,6 +545,29 @@ public class DatabaseRepository {
         return jdbcTemplate.query(sql, new DeliveryRowMapper());
     }
 
+    /**
+     * Get one page of deliveries (newest first, keyset on delivery_date + delivery_id)
+     */
+    public PageResult<Delivery> getDeliveriesPage(String cursor, Integer size) {
+        String sql = "SELECT delivery_id, delivery_code, delivery_date, status, " +
+                    "beneficiary_code, beneficiary_name, family_size, district, city, " +
+                    "program_code, program_name, program_type, product_description, " +
+                    "quantity_delivered, unit_value, total_value, notes, " +
+                    "created_by_name, approved_by_name, created_at " +
+                    "FROM vw_delivery_details WHERE 1 = 1";
+        return queryPage(sql, null, "delivery_date", DATE_KEY, "delivery_id",
+                         new DeliveryRowMapper(), cursor, size);
+    }
+
+    /**
+     * Get the total value of a single delivery
+     */
+    public BigDecimal getDeliveryTotalValue(Long deliveryId) {
+        String sql = "SELECT total_value FROM tbl_deliveries WHERE delivery_id = ?";
+        List<BigDecimal> values = jdbcTemplate.queryForList(sql, BigDecimal.class, deliveryId);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
     /**
      * Get inventory status
      */
@@ -370,43 +584,611 @@ public class DatabaseRepository {
      */
     public Long performDelivery(Long beneficiaryId, Long programId, String productDescription,
                                Integer quantity, String notes, Long createdBy) {
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(jdbcTemplate)
-                .withCatalogName("PKG_DELIVERIES")
-                .withProcedureName("PERFORM_DELIVERY")
-                .declareParameters(
-                        new SqlParameter("p_beneficiary_id", Types.NUMERIC),
-                        new SqlParameter("p_program_id", Types.NUMERIC),
-                        new SqlParameter("p_product_description", Types.VARCHAR),
-                        new SqlParameter("p_quantity", Types.NUMERIC),
-                        new SqlParameter("p_notes", Types.VARCHAR),
-                        new SqlParameter("p_created_by", Types.NUMERIC),
-                        new SqlOutParameter("p_delivery_id", Types.NUMERIC)
-                );
-
-        Map<String, Object> result = jdbcCall.execute(
+        Map<String, Object> result = procedures.execute(StoredProcedureGateway.PERFORM_DELIVERY,
                 beneficiaryId, programId, productDescription, quantity, notes, createdBy
         );
 
         return ((Number) result.get("p_delivery_id")).longValue();
     }
 
+    /**
+     * Get which of the given beneficiaries exist and are active
+     */
+    public Set<Long> getActiveBeneficiaryIds(Collection<Long> beneficiaryIds) {
+        return getActiveIds("tbl_beneficiaries", "beneficiary_id", beneficiaryIds);
+    }
+
+    /**
+     * Lock a program inventory row for the current transaction (null if the product is not stocked)
+     */
+    public Map<String, Object> lockInventoryItem(Long programId, String productDescription) {
+        String sql = "SELECT inventory_id, product_description, available_quantity, unit_value " +
+                    "FROM tbl_program_inventory " +
+                    "WHERE program_id = ? AND UPPER(product_description) = UPPER(?) FOR UPDATE";
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, programId, productDescription);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Insert completed deliveries of one program product as a single JDBC batch
+     * (same columns PKG_DELIVERIES.PERFORM_DELIVERY writes). Returns the new
+     * delivery IDs in entry order; stock must be decremented by the caller.
+     */
+    public List<Long> insertDeliveryBatch(Long programId, String productDescription, BigDecimal unitValue,
+                                          List<DeliveryBatchEntry> entries, Long createdBy) {
+        List<Long> deliveryIds = sequences.next(SequenceAllocator.DELIVERIES, entries.size());
+
+        BigDecimal unit = unitValue != null ? unitValue : BigDecimal.ZERO;
+        List<Object[]> deliveries = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            DeliveryBatchEntry entry = entries.get(i);
+            Long deliveryId = deliveryIds.get(i);
+            deliveries.add(new Object[]{deliveryId, SequenceAllocator.codeNumber(deliveryId),
+                    entry.getBeneficiaryId(), programId,
+                    productDescription, entry.getQuantity(), unitValue,
+                    unit.multiply(BigDecimal.valueOf(entry.getQuantity())), entry.getNotes(), createdBy, createdBy});
+        }
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tbl_deliveries (delivery_id, delivery_code, beneficiary_id, program_id, " +
+                "delivery_date, product_description, quantity_delivered, unit_value, total_value, status, " +
+                "notes, created_by, approved_by, created_at) " +
+                "VALUES (?, 'DEL-' || TO_CHAR(SYSDATE, 'YYYY') || '-' || ?, ?, ?, SYSDATE, " +
+                "?, ?, ?, ?, 'COMPLETED', ?, ?, ?, CURRENT_TIMESTAMP)",
+                deliveries,
+                new int[]{Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.VARCHAR, Types.NUMERIC,
+                          Types.NUMERIC, Types.NUMERIC, Types.VARCHAR, Types.NUMERIC, Types.NUMERIC});
+
+        return deliveryIds;
+    }
+
+    /**
+     * Get the available quantity of a program product (null if the product is not stocked)
+     */
+    public Integer getAvailableStock(Long programId, String productDescription) {
+        String sql = "SELECT available_quantity FROM tbl_program_inventory " +
+                    "WHERE program_id = ? AND UPPER(product_description) = UPPER(?)";
+        List<Integer> rows = jdbcTemplate.queryForList(sql, Integer.class, programId, productDescription);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Get the available quantity of every program product
+     */
+    public List<Map<String, Object>> getInventoryAvailability() {
+        String sql = "SELECT program_id, product_description, available_quantity FROM tbl_program_inventory";
+        return jdbcTemplate.queryForList(sql);
+    }
+
+    /**
+     * Move delivered quantity out of available stock in one update
+     */
+    public void decrementInventory(Long inventoryId, int quantity) {
+        String sql = "UPDATE tbl_program_inventory " +
+                    "SET available_quantity = available_quantity - ?, " +
+                    "delivered_quantity = delivered_quantity + ?, last_updated = CURRENT_TIMESTAMP " +
+                    "WHERE inventory_id = ?";
+        jdbcTemplate.update(sql, quantity, quantity, inventoryId);
+    }
+
     // ================================================================
     // DASHBOARD METRICS
     // ================================================================
 
     /**
-     * Get dashboard metrics
+     * Run several reads against one consistent snapshot (serializable transaction)
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public <T> T inSnapshot(Supplier<T> reads) {
+        return reads.get();
+    }
+
+    private static final Map<String, String> DASHBOARD_SOURCE_ID_COLUMN = Map.of(
+            "tbl_donors", "donor_id",
+            "tbl_beneficiaries", "beneficiary_id",
+            "tbl_programs", "program_id",
+            "tbl_donations", "donation_id",
+            "tbl_deliveries", "delivery_id");
+
+    /**
+     * Filter IDs down to the rows that exist (one of the dashboard's source tables)
+     */
+    public Set<Long> getExistingIds(String table, Collection<Long> ids) {
+        String idColumn = DASHBOARD_SOURCE_ID_COLUMN.get(table);
+        if (idColumn == null) {
+            throw new IllegalArgumentException("Unknown table " + table);
+        }
+        Set<Long> existing = new HashSet<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = "SELECT " + idColumn + " FROM " + table + " WHERE " + idColumn +
+                        " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            existing.addAll(jdbcTemplate.queryForList(sql, Long.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * Get the family size of active beneficiaries (as summed by vw_dashboard_metrics)
+     */
+    public Map<Long, Integer> getActiveFamilySizes(Collection<Long> beneficiaryIds) {
+        Map<Long, Integer> sizes = new HashMap<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(beneficiaryIds));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = "SELECT beneficiary_id, family_size FROM tbl_beneficiaries WHERE is_active = 'Y' " +
+                        "AND beneficiary_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            jdbcTemplate.query(sql, rs -> {
+                sizes.put(rs.getLong("beneficiary_id"), rs.getInt("family_size"));
+            }, chunk.toArray());
+        }
+        return sizes;
+    }
+
+    /**
+     * Get dashboard metrics.
+     * TOTAL_DONATIONS_VALUE_PEN is left out on purpose: it is the column with the
+     * per-row exchange-rate subquery, and it is computed in Java by CurrencyService.
      */
     public Map<String, Object> getDashboardMetrics() {
-        String sql = "SELECT * FROM vw_dashboard_metrics";
+        String sql = "SELECT total_active_donors, new_donors_last_month, " +
+                    "total_active_beneficiaries, total_people_served, total_active_programs, " +
+                    "total_donations_all_time, donations_last_month, " +
+                    "total_deliveries_completed, deliveries_last_month, total_deliveries_value_pen, " +
+                    "inventory_items_in_stock, inventory_items_out_of_stock " +
+                    "FROM vw_dashboard_metrics";
         return jdbcTemplate.queryForMap(sql);
     }
 
+    // ================================================================
+    // KEYSET PAGINATION
+    // ================================================================
+
+    // Cursor date binds: a TIMESTAMP bind on a DATE column makes Oracle convert
+    // the column (INTERNAL_FUNCTION) and lose the (date, id) index range scan
+    private static final String TIMESTAMP_KEY = "?";
+    private static final String DATE_KEY = "CAST(? AS DATE)";
+
+    /**
+     * Run a keyset-paginated query ordered by (dateColumn DESC, idColumn DESC).
+     * The SQL must end with a WHERE clause; the keyset predicate is appended to it.
+     * One extra row is fetched to know whether another page exists. When
+     * summarySql is given, the page query is put in its %s (an inline view)
+     * so per-row aggregates are computed for the page's rows only; it must
+     * keep the page order.
+     */
+    private <T> PageResult<T> queryPage(String sql, String summarySql, String dateColumn, String dateBind,
+                                        String idColumn, RowMapper<T> rowMapper, String cursor, Integer size) {
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        String order = " ORDER BY " + dateColumn + " DESC, " + idColumn + " DESC " +
+                       "FETCH FIRST " + (pageSize + 1) + " ROWS ONLY";
+
+        Object[] args;
+        if (cursor == null || cursor.isEmpty()) {
+            sql = sql + order;
+            args = new Object[0];
+        } else {
+            Object[] key = decodeCursor(cursor);
+            sql = sql + " AND (" + dateColumn + " < " + dateBind + " OR (" + dateColumn + " = " + dateBind +
+                  " AND " + idColumn + " < ?))" + order;
+            args = new Object[]{key[0], key[0], key[1]};
+        }
+        if (summarySql != null) {
+            sql = String.format(summarySql, sql);
+        }
+
+        return jdbcTemplate.query(sql, rs -> {
+            List<T> items = new ArrayList<>(pageSize);
+            Timestamp lastDate = null;
+            long lastId = 0;
+            boolean hasMore = false;
+            while (rs.next()) {
+                if (items.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                items.add(rowMapper.mapRow(rs, items.size()));
+                lastDate = rs.getTimestamp(dateColumn);
+                lastId = rs.getLong(idColumn);
+            }
+            String nextCursor = hasMore && lastDate != null ? encodeCursor(lastDate, lastId) : null;
+            return new PageResult<>(items, nextCursor, pageSize);
+        }, args);
+    }
+
+    /**
+     * Encode (date, id) as an opaque URL-safe cursor token
+     */
+    private String encodeCursor(Timestamp date, long id) {
+        String raw = date.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token back into {Timestamp, Long}
+     */
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Object[]{
+                    Timestamp.valueOf(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1))
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    // ================================================================
+    // STREAMING EXPORTS
+    // ================================================================
+
+    /**
+     * Stream all active donors to the consumer, one row at a time
+     */
+    public void streamDonors(Consumer<Donor> consumer) {
+        String sql = "SELECT donor_id, donor_code, full_name, email, phone, donor_type, " +
+                    "address, is_active, created_at, total_donations, " +
+                    "last_donation_date FROM vw_donor_summary WHERE is_active = 'Y' " +
+                    "ORDER BY donor_id";
+        stream(sql, new DonorRowMapper(), consumer);
+    }
+
+    /**
+     * Stream all active beneficiaries to the consumer, one row at a time
+     */
+    public void streamBeneficiaries(Consumer<Beneficiary> consumer) {
+        String sql = "SELECT beneficiary_id, beneficiary_code, full_name, family_size, " +
+                    "phone, address, district, city, is_active, created_at, total_deliveries, " +
+                    "total_quantity_received, total_value_received_pen, last_delivery_date " +
+                    "FROM vw_beneficiary_summary WHERE is_active = 'Y' ORDER BY beneficiary_id";
+        stream(sql, new BeneficiaryRowMapper(), consumer);
+    }
+
+    /**
+     * Stream the full donation history to the consumer, one row at a time
+     */
+    public void streamDonations(Consumer<Donation> consumer) {
+        String sql = "SELECT donation_id, donation_code, donation_date, donor_code, donor_name, " +
+                    "donor_type, donation_type_name, original_amount, currency_code, currency_symbol, " +
+                    "amount_in_pen, product_description, quantity, unit_value, program_code, " +
+                    "program_name, notes, created_by_name, created_at " +
+                    "FROM vw_donation_details ORDER BY donation_id";
+        stream(sql, new DonationRowMapper(), consumer);
+    }
+
+    /**
+     * Stream the full delivery history to the consumer, one row at a time
+     */
+    public void streamDeliveries(Consumer<Delivery> consumer) {
+        String sql = "SELECT delivery_id, delivery_code, delivery_date, status, " +
+                    "beneficiary_code, beneficiary_name, family_size, district, city, " +
+                    "program_code, program_name, program_type, product_description, " +
+                    "quantity_delivered, unit_value, total_value, notes, " +
+                    "created_by_name, approved_by_name, created_at " +
+                    "FROM vw_delivery_details ORDER BY delivery_id";
+        stream(sql, new DeliveryRowMapper(), consumer);
+    }
+
+    /**
+     * Read a forward-only, read-only cursor and hand each mapped row to the consumer.
+     * Nothing is accumulated; the consumer blocking on a slow client simply stops
+     * the cursor from advancing.
+     */
+    private <T> void stream(String sql, RowMapper<T> rowMapper, Consumer<T> consumer) {
+        PreparedStatementCreator statementCreator = con -> {
+            PreparedStatement ps = con.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            return ps;
+        };
+        int[] rowNum = {0};
+        jdbcTemplate.query(statementCreator, rs -> {
+            consumer.accept(rowMapper.mapRow(rs, rowNum[0]++));
+        });
+    }
+
+    // ================================================================
+    // SEARCH INDEX SOURCE
+    // ================================================================
+
+    private static final Map<String, String> SEARCH_ENTRY_SQL = Map.of(
+            SearchResult.DONOR,
+            "SELECT donor_id AS entity_id, donor_code AS code, full_name AS name, email AS detail " +
+            "FROM tbl_donors WHERE is_active = 'Y'",
+            SearchResult.BENEFICIARY,
+            "SELECT beneficiary_id AS entity_id, beneficiary_code AS code, full_name AS name, " +
+            "district AS detail FROM tbl_beneficiaries WHERE is_active = 'Y'",
+            SearchResult.PROGRAM,
+            "SELECT program_id AS entity_id, program_code AS code, program_name AS name, " +
+            "program_type AS detail FROM tbl_programs WHERE is_active = 'Y'",
+            SearchResult.DONATION,
+            "SELECT d.donation_id AS entity_id, d.donation_code AS code, dn.full_name AS name, " +
+            "TO_CHAR(d.donation_date, 'YYYY-MM-DD') AS detail " +
+            "FROM tbl_donations d JOIN tbl_donors dn ON d.donor_id = dn.donor_id WHERE 1 = 1",
+            SearchResult.DELIVERY,
+            "SELECT dl.delivery_id AS entity_id, dl.delivery_code AS code, b.full_name AS name, " +
+            "p.program_name AS detail FROM tbl_deliveries dl " +
+            "JOIN tbl_beneficiaries b ON dl.beneficiary_id = b.beneficiary_id " +
+            "JOIN tbl_programs p ON dl.program_id = p.program_id WHERE 1 = 1");
+
+    private static final Map<String, String> SEARCH_ENTRY_ID_COLUMN = Map.of(
+            SearchResult.DONOR, "donor_id",
+            SearchResult.BENEFICIARY, "beneficiary_id",
+            SearchResult.PROGRAM, "program_id",
+            SearchResult.DONATION, "d.donation_id",
+            SearchResult.DELIVERY, "dl.delivery_id");
+
+    /**
+     * Stream every searchable entity of one type (forward-only cursor)
+     */
+    public void streamSearchEntries(String entityType, Consumer<SearchResult> consumer) {
+        stream(SEARCH_ENTRY_SQL.get(entityType), new SearchResultRowMapper(entityType), consumer);
+    }
+
+    /**
+     * Get the searchable fields of specific entities (inactive ones are not returned)
+     */
+    public List<SearchResult> getSearchEntries(String entityType, Collection<Long> ids) {
+        List<SearchResult> entries = new ArrayList<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(ids));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = SEARCH_ENTRY_SQL.get(entityType) + " AND " + SEARCH_ENTRY_ID_COLUMN.get(entityType) +
+                        " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            entries.addAll(jdbcTemplate.query(sql, new SearchResultRowMapper(entityType), chunk.toArray()));
+        }
+        return entries;
+    }
+
+    // ================================================================
+    // AREA ROLLUP SOURCE
+    // ================================================================
+
+    private static final String BENEFICIARY_FOOTPRINT_SQL =
+            "SELECT b.beneficiary_id, b.district, b.city, b.family_size, b.is_active, " +
+            "COUNT(d.delivery_id) AS deliveries, NVL(SUM(d.quantity_delivered), 0) AS quantity, " +
+            "NVL(SUM(d.total_value), 0) AS total_value " +
+            "FROM tbl_beneficiaries b " +
+            "LEFT JOIN tbl_deliveries d ON d.beneficiary_id = b.beneficiary_id AND d.status = 'COMPLETED' ";
+
+    private static final String BENEFICIARY_FOOTPRINT_GROUP_BY =
+            " GROUP BY b.beneficiary_id, b.district, b.city, b.family_size, b.is_active";
+
+    /**
+     * Stream every beneficiary with its area and completed delivery totals (forward-only cursor)
+     */
+    public void streamBeneficiaryFootprints(Consumer<Map<String, Object>> consumer) {
+        stream(BENEFICIARY_FOOTPRINT_SQL + BENEFICIARY_FOOTPRINT_GROUP_BY, new ColumnMapRowMapper(), consumer);
+    }
+
+    /**
+     * Get the area and completed delivery totals of specific beneficiaries
+     */
+    public List<Map<String, Object>> getBeneficiaryFootprints(Collection<Long> beneficiaryIds) {
+        List<Map<String, Object>> footprints = new ArrayList<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(beneficiaryIds));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = BENEFICIARY_FOOTPRINT_SQL + "WHERE b.beneficiary_id IN (" +
+                        String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")" +
+                        BENEFICIARY_FOOTPRINT_GROUP_BY;
+            footprints.addAll(jdbcTemplate.queryForList(sql, chunk.toArray()));
+        }
+        return footprints;
+    }
+
+    // ================================================================
+    // DONATION ROLLUP SOURCE
+    // ================================================================
+
+    /**
+     * Stream donation totals per (day, program, type, currency, donor type, amount)
+     * The program is the one the donation was assigned to at registration;
+     * money stays in its own currency (each donation converted in Java, so
+     * rows are split by amount), products
+     * are valued in PEN. Returns which of the candidate donations (read once
+     * the stream is done) were counted: both queries run in one serializable
+     * transaction, so they see the same snapshot whatever order ids commit in.
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public Set<Long> streamDonationRollupSource(Consumer<Map<String, Object>> consumer,
+                                                Supplier<Collection<Long>> candidateIds) {
+        String sql = "SELECT donation_day, program_id, type_code, currency_id, donor_type, amount, " +
+                    "COUNT(*) AS donations, SUM(amount) AS total_amount, " +
+                    "SUM(quantity) AS total_quantity, SUM(product_value) AS product_value " +
+                    "FROM (SELECT d.donation_id, TRUNC(d.donation_date) AS donation_day, " +
+                    "(SELECT MIN(da.program_id) FROM tbl_donation_assignments da " +
+                    "WHERE da.donation_id = d.donation_id) AS program_id, " +
+                    "dt.type_code, d.currency_id, dn.donor_type, d.amount, d.quantity, " +
+                    "d.quantity * NVL(d.unit_value, 0) AS product_value " +
+                    "FROM tbl_donations d " +
+                    "JOIN tbl_donation_types dt ON d.donation_type_id = dt.donation_type_id " +
+                    "JOIN tbl_donors dn ON d.donor_id = dn.donor_id) " +
+                    "GROUP BY donation_day, program_id, type_code, currency_id, donor_type, amount";
+        stream(sql, new ColumnMapRowMapper(), consumer);
+
+        return getExistingIds("tbl_donations", candidateIds.get());
+    }
+
+    /**
+     * Stream the type of every donor (forward-only cursor)
+     */
+    public void streamDonorTypes(Consumer<Map<String, Object>> consumer) {
+        stream("SELECT donor_id, donor_type FROM tbl_donors", new ColumnMapRowMapper(), consumer);
+    }
+
+    // ================================================================
+    // DONOR LEADERBOARD SOURCE
+    // ================================================================
+
+    // One row per donor and (type, currency, day, amount) donated, one row with a
+    // null type for donors without donations; each money donation is converted
+    // in Java with the rate of its day
+    private static final String DONOR_STANDING_SQL =
+            "SELECT d.donor_id, d.donor_code, d.full_name, d.email, d.donor_type, d.is_active, " +
+            "dt.type_code, don.currency_id, TRUNC(don.donation_date) AS donation_day, don.amount, " +
+            "COUNT(don.donation_id) AS donations, " +
+            "SUM(don.quantity * NVL(don.unit_value, 0)) AS product_value, " +
+            "MAX(don.donation_date) AS last_donation_date " +
+            "FROM tbl_donors d " +
+            "LEFT JOIN tbl_donations don ON d.donor_id = don.donor_id " +
+            "LEFT JOIN tbl_donation_types dt ON don.donation_type_id = dt.donation_type_id ";
+
+    private static final String DONOR_STANDING_GROUP_BY =
+            " GROUP BY d.donor_id, d.donor_code, d.full_name, d.email, d.donor_type, d.is_active, " +
+            "dt.type_code, don.currency_id, TRUNC(don.donation_date), don.amount ORDER BY d.donor_id";
+
+    /**
+     * Stream donation totals of every donor, grouped by donor (forward-only cursor)
+     */
+    public void streamDonorStandings(Consumer<Map<String, Object>> consumer) {
+        stream(DONOR_STANDING_SQL + DONOR_STANDING_GROUP_BY, new ColumnMapRowMapper(), consumer);
+    }
+
+    /**
+     * Get the donation totals of specific donors, grouped by donor
+     */
+    public List<Map<String, Object>> getDonorStandings(Collection<Long> donorIds) {
+        List<Map<String, Object>> standings = new ArrayList<>();
+        List<Long> distinct = new ArrayList<>(new HashSet<>(donorIds));
+        for (int from = 0; from < distinct.size(); from += 1000) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + 1000, distinct.size()));
+            String sql = DONOR_STANDING_SQL + "WHERE d.donor_id IN (" +
+                        String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")" +
+                        DONOR_STANDING_GROUP_BY;
+            standings.addAll(jdbcTemplate.queryForList(sql, chunk.toArray()));
+        }
+        return standings;
+    }
+
+    // ================================================================
+    // REPORT PROCEDURES (PKG_REPORTS)
+    // ================================================================
+
+    /**
+     * Run a PKG_REPORTS procedure and stream its cursor rows; onStatement
+     * receives the call before it runs so it can be cancelled
+     */
+    public void streamReport(String procedure, Consumer<Statement> onStatement,
+                             Consumer<Map<String, Object>> consumer, Object... args) {
+        procedures.stream(procedure, onStatement, consumer, args);
+    }
+
+    // ================================================================
+    // APPLICATION AUDIT
+    // ================================================================
+
+    // Same old/new value format as TRG_AUDIT_DONATIONS / TRG_AUDIT_DELIVERIES
+    private static final String DONATION_AUDIT_VALUES =
+            "'ID:' || d.donation_id || ',CODE:' || d.donation_code || ',DONOR:' || d.donor_id || " +
+            "',TYPE:' || d.donation_type_id || ',AMOUNT:' || d.amount || " +
+            "',PRODUCT:' || d.product_description || ',QTY:' || d.quantity";
+
+    private static final String DELIVERY_AUDIT_VALUES =
+            "'ID:' || d.delivery_id || ',CODE:' || d.delivery_code || ',BENEF:' || d.beneficiary_id || " +
+            "',PROG:' || d.program_id || ',PRODUCT:' || d.product_description || " +
+            "',QTY:' || d.quantity_delivered || ',STATUS:' || d.status";
+
+    // INSERT audit triggers (10_triggers.sql), switched by 16_audit_mode.sql
+    private static final Map<String, String> AUDIT_INSERT_TRIGGERS = Map.of(
+            "TRG_AUDIT_DONATIONS_INS", AuditEvent.DONATION,
+            "TRG_AUDIT_DELIVERIES_INS", AuditEvent.DELIVERY);
+
+    /**
+     * Write audit rows for inserted donations/deliveries as one JDBC batch per table.
+     * Values are read from the stored row, so they match what the triggers wrote;
+     * rows that already have an INSERT audit are skipped. Returns the number of
+     * events not written (row not found or already audited).
+     */
+    public int insertAuditEvents(List<AuditEvent> events) {
+        List<Object[]> donations = new ArrayList<>();
+        List<Object[]> deliveries = new ArrayList<>();
+        for (AuditEvent event : events) {
+            Object[] row = {event.getActionType(), event.getChangedBy(), event.getChangedAt(), event.getEntityId()};
+            (AuditEvent.DONATION.equals(event.getEntity()) ? donations : deliveries).add(row);
+        }
+
+        int missing = 0;
+        int[] argTypes = {Types.VARCHAR, Types.NUMERIC, Types.TIMESTAMP, Types.NUMERIC};
+        if (!donations.isEmpty()) {
+            missing += countMissing(jdbcTemplate.batchUpdate(
+                    "INSERT INTO tbl_audit_donations (audit_id, donation_id, action_type, old_values, " +
+                    "new_values, changed_by, changed_at) " +
+                    "SELECT seq_audit_donations.NEXTVAL, d.donation_id, ?, NULL, " + DONATION_AUDIT_VALUES +
+                    ", NVL(?, d.created_by), ? FROM tbl_donations d WHERE d.donation_id = ? AND NOT EXISTS " +
+                    "(SELECT 1 FROM tbl_audit_donations a WHERE a.donation_id = d.donation_id " +
+                    "AND a.action_type = 'INSERT')",
+                    donations, argTypes));
+        }
+        if (!deliveries.isEmpty()) {
+            missing += countMissing(jdbcTemplate.batchUpdate(
+                    "INSERT INTO tbl_audit_deliveries (audit_id, delivery_id, action_type, old_values, " +
+                    "new_values, changed_by, changed_at) " +
+                    "SELECT seq_audit_deliveries.NEXTVAL, d.delivery_id, ?, NULL, " + DELIVERY_AUDIT_VALUES +
+                    ", NVL(?, d.created_by), ? FROM tbl_deliveries d WHERE d.delivery_id = ? AND NOT EXISTS " +
+                    "(SELECT 1 FROM tbl_audit_deliveries a WHERE a.delivery_id = d.delivery_id " +
+                    "AND a.action_type = 'INSERT')",
+                    deliveries, argTypes));
+        }
+        return missing;
+    }
+
+    /**
+     * Write the missing INSERT audit rows of donations/deliveries created in the last hours
+     * (events lost by a crash before the writer flushed them). Returns the rows written.
+     */
+    public int recoverMissingAudits(int hours) {
+        int recovered = jdbcTemplate.update(
+                "INSERT INTO tbl_audit_donations (audit_id, donation_id, action_type, old_values, " +
+                "new_values, changed_by, changed_at) " +
+                "SELECT seq_audit_donations.NEXTVAL, d.donation_id, 'INSERT', NULL, " + DONATION_AUDIT_VALUES +
+                ", d.created_by, d.created_at FROM tbl_donations d " +
+                "WHERE d.created_at >= SYSTIMESTAMP - NUMTODSINTERVAL(?, 'HOUR') AND NOT EXISTS " +
+                "(SELECT 1 FROM tbl_audit_donations a WHERE a.donation_id = d.donation_id " +
+                "AND a.action_type = 'INSERT')", hours);
+        recovered += jdbcTemplate.update(
+                "INSERT INTO tbl_audit_deliveries (audit_id, delivery_id, action_type, old_values, " +
+                "new_values, changed_by, changed_at) " +
+                "SELECT seq_audit_deliveries.NEXTVAL, d.delivery_id, 'INSERT', NULL, " + DELIVERY_AUDIT_VALUES +
+                ", d.created_by, d.created_at FROM tbl_deliveries d " +
+                "WHERE d.created_at >= SYSTIMESTAMP - NUMTODSINTERVAL(?, 'HOUR') AND NOT EXISTS " +
+                "(SELECT 1 FROM tbl_audit_deliveries a WHERE a.delivery_id = d.delivery_id " +
+                "AND a.action_type = 'INSERT')", hours);
+        return recovered;
+    }
+
+    /**
+     * Entities whose INSERT audit trigger is disabled (application audit mode)
+     */
+    public Set<String> getApplicationAuditedEntities() {
+        Set<String> entities = new HashSet<>();
+        for (String trigger : jdbcTemplate.queryForList(
+                "SELECT trigger_name FROM user_triggers WHERE status = 'DISABLED' AND trigger_name IN (?, ?)",
+                String.class, AUDIT_INSERT_TRIGGERS.keySet().toArray())) {
+            entities.add(AUDIT_INSERT_TRIGGERS.get(trigger));
+        }
+        return entities;
+    }
+
+    private int countMissing(int[] counts) {
+        int missing = 0;
+        for (int count : counts) {
+            if (count == 0) {
+                missing++;
+            }
+        }
+        return missing;
+    }
+
     // ================================================================
     // ROW MAPPERS
     // ================================================================
 
-    private static class DonorRowMapper implements RowMapper<Donor> {
+    static class DonorRowMapper implements RowMapper<Donor> {
         @Override
         public Donor mapRow(ResultSet rs, int rowNum) throws SQLException {
             Donor donor = new Donor();
@@ -421,7 +1203,6 @@ public class DatabaseRepository {
             donor.setCreatedAt(rs.getTimestamp("created_at") != null ? 
                 rs.getTimestamp("created_at").toLocalDateTime() : null);
             donor.setTotalDonations(rs.getInt("total_donations"));
-            donor.setTotalValuePen(rs.getDouble("total_value_pen"));
             donor.setLastDonationDate(rs.getTimestamp("last_donation_date") != null ? 
                 rs.getTimestamp("last_donation_date").toLocalDateTime() : null);
             return donor;
@@ -452,6 +1233,26 @@ public class DatabaseRepository {
         }
     }
 
+    private static class ProgramOptionRowMapper implements RowMapper<Program> {
+        @Override
+        public Program mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Program program = new Program();
+            program.setProgramId(rs.getLong("program_id"));
+            program.setProgramCode(rs.getString("program_code"));
+            program.setProgramName(rs.getString("program_name"));
+            program.setDescription(rs.getString("description"));
+            program.setProgramType(rs.getString("program_type"));
+            program.setStartDate(rs.getDate("start_date") != null ? 
+                rs.getDate("start_date").toLocalDate() : null);
+            program.setEndDate(rs.getDate("end_date") != null ? 
+                rs.getDate("end_date").toLocalDate() : null);
+            program.setIsActive(rs.getString("is_active"));
+            program.setCreatedAt(rs.getTimestamp("created_at") != null ? 
+                rs.getTimestamp("created_at").toLocalDateTime() : null);
+            return program;
+        }
+    }
+
     private static class ProgramRowMapper implements RowMapper<Program> {
         @Override
         public Program mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -478,7 +1279,7 @@ public class DatabaseRepository {
         }
     }
 
-    private static class DonationRowMapper implements RowMapper<Donation> {
+    static class DonationRowMapper implements RowMapper<Donation> {
         @Override
         public Donation mapRow(ResultSet rs, int rowNum) throws SQLException {
             Donation donation = new Donation();
@@ -507,7 +1308,7 @@ public class DatabaseRepository {
         }
     }
 
-    private static class DeliveryRowMapper implements RowMapper<Delivery> {
+    static class DeliveryRowMapper implements RowMapper<Delivery> {
         @Override
         public Delivery mapRow(ResultSet rs, int rowNum) throws SQLException {
             Delivery delivery = new Delivery();
@@ -537,6 +1338,20 @@ public class DatabaseRepository {
         }
     }
 
+    private static class SearchResultRowMapper implements RowMapper<SearchResult> {
+        private final String entityType;
+
+        SearchResultRowMapper(String entityType) {
+            this.entityType = entityType;
+        }
+
+        @Override
+        public SearchResult mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new SearchResult(entityType, rs.getLong("entity_id"), rs.getString("code"),
+                                    rs.getString("name"), rs.getString("detail"));
+        }
+    }
+
     // ================================================================
     // USER OPERATIONS
     // ================================================================
@@ -589,6 +1404,18 @@ public class DatabaseRepository {
         }
     }
 
+    /**
+     * Set the last login of many users in one JDBC batch (never moves a login back in time)
+     */
+    public void updateUserLastLogins(Map<Long, Timestamp> lastLogins) {
+        List<Object[]> rows = new ArrayList<>(lastLogins.size());
+        lastLogins.forEach((userId, loginTime) -> rows.add(new Object[]{loginTime, userId, loginTime}));
+        jdbcTemplate.batchUpdate(
+                "UPDATE tbl_users SET last_login = ? " +
+                "WHERE user_id = ? AND (last_login IS NULL OR last_login < ?)",
+                rows, new int[]{Types.TIMESTAMP, Types.NUMERIC, Types.TIMESTAMP});
+    }
+
     /**
      * ROW MAPPER FOR USERS
      */
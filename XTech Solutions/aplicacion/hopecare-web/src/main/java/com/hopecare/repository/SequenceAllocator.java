@@ -0,0 +1,114 @@
+package com.hopecare.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequence Allocator
+ * Hands out IDs for the JDBC batch paths from blocks of sequence values
+ * reserved in one round trip, so bulk registrations do not pay a sequence
+ * call per row. Values come from the same Oracle sequences the PL/SQL
+ * packages use and are never handed out twice; the unused part of a block
+ * is simply skipped after a restart (gaps, no collisions). Each sequence
+ * has its own pool, so allocations for different tables never contend.
+ * Block fetches are counted as hopecare.sequence.fetches (tag: sequence).
+ */
+@Component
+public class SequenceAllocator {
+
+    public static final String DONATIONS = "seq_donations";
+    public static final String DELIVERIES = "seq_deliveries";
+
+    public static final String METRIC_NAME = "hopecare.sequence";
+
+    // Only these names are ever concatenated into SQL
+    private static final Set<String> SEQUENCES = Set.of(DONATIONS, DELIVERIES);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.ids.block-size:100}")
+    private int blockSize;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String sequence : SEQUENCES) {
+            pools.put(sequence, new Pool(Counter.builder(METRIC_NAME + ".fetches")
+                    .description("Sequence blocks fetched from the database")
+                    .tag("sequence", sequence)
+                    .register(meterRegistry)));
+        }
+    }
+
+    /**
+     * Next value of a sequence
+     */
+    public long next(String sequence) {
+        return next(sequence, 1).get(0);
+    }
+
+    /**
+     * Next count values of a sequence, fetching at most one block from the database
+     */
+    public List<Long> next(String sequence, int count) {
+        Pool pool = pools.get(sequence);
+        if (pool == null) {
+            throw new IllegalArgumentException("Unknown sequence: " + sequence);
+        }
+        List<Long> ids = new ArrayList<>(count);
+        synchronized (pool) {
+            while (ids.size() < count && !pool.values.isEmpty()) {
+                ids.add(pool.values.poll());
+            }
+            int missing = count - ids.size();
+            if (missing > 0) {
+                // Take what is missing plus a fresh block for the next callers
+                List<Long> block = jdbcTemplate.queryForList(
+                        "SELECT " + sequence + ".NEXTVAL FROM dual CONNECT BY LEVEL <= ?",
+                        Long.class, missing + blockSize);
+                pool.fetches.increment();
+                ids.addAll(block.subList(0, missing));
+                pool.values.addAll(block.subList(missing, block.size()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Number part of a donation/delivery code: zero padded to three digits
+     * like the PL/SQL packages, growing past 999 instead of truncating
+     */
+    public static String codeNumber(long id) {
+        return String.format("%03d", id);
+    }
+
+    /**
+     * Values of one sequence not handed out yet
+     */
+    private static class Pool {
+        private final Deque<Long> values = new ArrayDeque<>();
+        private final Counter fetches;
+
+        Pool(Counter fetches) {
+            this.fetches = fetches;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.hopecare.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import oracle.jdbc.OracleTypes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.CallableStatementCallback;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlOutParameter;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Stored Procedure Gateway
+ * Compiles every PL/SQL package call once at startup and reuses it.
+ * Parameters are declared explicitly so no procedure metadata lookup
+ * is made per request; compiled SimpleJdbcCall instances are thread-safe.
+ * Report procedures returning a SYS_REFCURSOR are streamed row by row
+ * instead. Each call is timed as hopecare.procedure (tag: procedure) with
+ * an error counter hopecare.procedure.errors.
+ */
+@Component
+public class StoredProcedureGateway {
+
+    public static final String REGISTER_DONOR = "PKG_DONORS.REGISTER_DONOR";
+    public static final String UPDATE_DONOR = "PKG_DONORS.UPDATE_DONOR";
+    public static final String REGISTER_BENEFICIARY = "PKG_BENEFICIARIES.REGISTER_BENEFICIARY";
+    public static final String UPDATE_BENEFICIARY = "PKG_BENEFICIARIES.UPDATE_BENEFICIARY";
+    public static final String CREATE_PROGRAM = "PKG_PROGRAMS.CREATE_PROGRAM";
+    public static final String REGISTER_MONEY_DONATION = "PKG_DONATIONS.REGISTER_MONEY_DONATION";
+    public static final String REGISTER_PRODUCT_DONATION = "PKG_DONATIONS.REGISTER_PRODUCT_DONATION";
+    public static final String PERFORM_DELIVERY = "PKG_DELIVERIES.PERFORM_DELIVERY";
+
+    public static final String TOTAL_DONATIONS_BY_PERIOD = "PKG_REPORTS.TOTAL_DONATIONS_BY_PERIOD";
+    public static final String DONATIONS_BY_PROGRAM = "PKG_REPORTS.DONATIONS_BY_PROGRAM";
+    public static final String TOP_DONORS = "PKG_REPORTS.TOP_DONORS";
+    public static final String DELIVERIES_SUMMARY = "PKG_REPORTS.DELIVERIES_SUMMARY";
+    public static final String PROGRAM_INVENTORY_STATUS = "PKG_REPORTS.PROGRAM_INVENTORY_STATUS";
+    public static final String DONATIONS_BY_TYPE = "PKG_REPORTS.DONATIONS_BY_TYPE";
+
+    public static final String METRIC_NAME = "hopecare.procedure";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private final Map<String, SimpleJdbcCall> calls = new ConcurrentHashMap<>();
+    private final Map<String, String> cursorCalls = new ConcurrentHashMap<>(); // JDBC escape syntax
+    private final Map<String, CallStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Compile all procedure calls on startup
+     */
+    @PostConstruct
+    public void init() {
+        register(REGISTER_DONOR,
+                new SqlParameter("p_full_name", Types.VARCHAR),
+                new SqlParameter("p_email", Types.VARCHAR),
+                new SqlParameter("p_phone", Types.VARCHAR),
+                new SqlParameter("p_donor_type", Types.VARCHAR),
+                new SqlParameter("p_address", Types.VARCHAR),
+                new SqlOutParameter("p_donor_id", Types.NUMERIC));
+
+        register(UPDATE_DONOR,
+                new SqlParameter("p_donor_id", Types.NUMERIC),
+                new SqlParameter("p_full_name", Types.VARCHAR),
+                new SqlParameter("p_email", Types.VARCHAR),
+                new SqlParameter("p_phone", Types.VARCHAR),
+                new SqlParameter("p_address", Types.VARCHAR));
+
+        register(REGISTER_BENEFICIARY,
+                new SqlParameter("p_full_name", Types.VARCHAR),
+                new SqlParameter("p_family_size", Types.NUMERIC),
+                new SqlParameter("p_phone", Types.VARCHAR),
+                new SqlParameter("p_address", Types.VARCHAR),
+                new SqlParameter("p_district", Types.VARCHAR),
+                new SqlParameter("p_city", Types.VARCHAR),
+                new SqlParameter("p_notes", Types.VARCHAR),
+                new SqlOutParameter("p_beneficiary_id", Types.NUMERIC));
+
+        register(UPDATE_BENEFICIARY,
+                new SqlParameter("p_beneficiary_id", Types.NUMERIC),
+                new SqlParameter("p_full_name", Types.VARCHAR),
+                new SqlParameter("p_family_size", Types.NUMERIC),
+                new SqlParameter("p_phone", Types.VARCHAR),
+                new SqlParameter("p_address", Types.VARCHAR),
+                new SqlParameter("p_district", Types.VARCHAR),
+                new SqlParameter("p_city", Types.VARCHAR),
+                new SqlParameter("p_notes", Types.VARCHAR));
+
+        register(CREATE_PROGRAM,
+                new SqlParameter("p_program_name", Types.VARCHAR),
+                new SqlParameter("p_description", Types.VARCHAR),
+                new SqlParameter("p_program_type", Types.VARCHAR),
+                new SqlParameter("p_start_date", Types.DATE),
+                new SqlParameter("p_end_date", Types.DATE),
+                new SqlOutParameter("p_program_id", Types.NUMERIC));
+
+        register(REGISTER_MONEY_DONATION,
+                new SqlParameter("p_donor_id", Types.NUMERIC),
+                new SqlParameter("p_amount", Types.NUMERIC),
+                new SqlParameter("p_currency_id", Types.NUMERIC),
+                new SqlParameter("p_program_id", Types.NUMERIC),
+                new SqlParameter("p_notes", Types.VARCHAR),
+                new SqlParameter("p_created_by", Types.NUMERIC),
+                new SqlOutParameter("p_donation_id", Types.NUMERIC));
+
+        register(REGISTER_PRODUCT_DONATION,
+                new SqlParameter("p_donor_id", Types.NUMERIC),
+                new SqlParameter("p_product_description", Types.VARCHAR),
+                new SqlParameter("p_quantity", Types.NUMERIC),
+                new SqlParameter("p_unit_value", Types.NUMERIC),
+                new SqlParameter("p_program_id", Types.NUMERIC),
+                new SqlParameter("p_notes", Types.VARCHAR),
+                new SqlParameter("p_created_by", Types.NUMERIC),
+                new SqlOutParameter("p_donation_id", Types.NUMERIC));
+
+        register(PERFORM_DELIVERY,
+                new SqlParameter("p_beneficiary_id", Types.NUMERIC),
+                new SqlParameter("p_program_id", Types.NUMERIC),
+                new SqlParameter("p_product_description", Types.VARCHAR),
+                new SqlParameter("p_quantity", Types.NUMERIC),
+                new SqlParameter("p_notes", Types.VARCHAR),
+                new SqlParameter("p_created_by", Types.NUMERIC),
+                new SqlOutParameter("p_delivery_id", Types.NUMERIC));
+
+        // IN parameters before the OUT cursor
+        registerCursor(TOTAL_DONATIONS_BY_PERIOD, 2);
+        registerCursor(DONATIONS_BY_PROGRAM, 0);
+        registerCursor(TOP_DONORS, 1);
+        registerCursor(DELIVERIES_SUMMARY, 0);
+        registerCursor(PROGRAM_INVENTORY_STATUS, 1);
+        registerCursor(DONATIONS_BY_TYPE, 0);
+    }
+
+    /**
+     * Execute a compiled procedure with positional arguments (IN parameters only)
+     */
+    public Map<String, Object> execute(String procedure, Object... args) {
+        SimpleJdbcCall call = calls.get(procedure);
+        if (call == null) {
+            throw new IllegalStateException("Procedure not registered: " + procedure);
+        }
+
+        CallStatistics stats = statistics.get(procedure);
+        long start = System.nanoTime();
+        try {
+            return call.execute(args);
+        } catch (RuntimeException e) {
+            stats.errors.increment();
+            throw e;
+        } finally {
+            stats.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Execute a procedure whose last parameter is an OUT SYS_REFCURSOR and
+     * hand each row to the consumer as it is fetched. The statement is
+     * passed to onStatement before it runs, so another thread can cancel it.
+     */
+    public void stream(String procedure, Consumer<Statement> onStatement,
+                       Consumer<Map<String, Object>> consumer, Object... args) {
+        String sql = cursorCalls.get(procedure);
+        if (sql == null) {
+            throw new IllegalStateException("Cursor procedure not registered: " + procedure);
+        }
+
+        CallStatistics stats = statistics.get(procedure);
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.execute(sql, (CallableStatementCallback<Void>) cs -> {
+                for (int i = 0; i < args.length; i++) {
+                    StatementCreatorUtils.setParameterValue(cs, i + 1, SqlTypeValue.TYPE_UNKNOWN, args[i]);
+                }
+                cs.registerOutParameter(args.length + 1, OracleTypes.CURSOR);
+                onStatement.accept(cs);
+                cs.execute();
+                ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+                try (ResultSet rs = (ResultSet) cs.getObject(args.length + 1)) {
+                    rs.setFetchSize(fetchSize);
+                    int rowNum = 0;
+                    while (rs.next()) {
+                        consumer.accept(rowMapper.mapRow(rs, rowNum++));
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            stats.errors.increment();
+            throw e;
+        } finally {
+            stats.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Get call counts and latencies per procedure
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        statistics.keySet().stream().sorted().forEach(name -> result.put(name, statistics.get(name).snapshot()));
+        return result;
+    }
+
+    /**
+     * Build and compile a procedure call
+     */
+    private void register(String procedure, SqlParameter... parameters) {
+        String[] parts = procedure.split("\\.");
+        SimpleJdbcCall call = new SimpleJdbcCall(jdbcTemplate)
+                .withCatalogName(parts[0])
+                .withProcedureName(parts[1])
+                .withoutProcedureColumnMetaDataAccess()
+                .declareParameters(parameters);
+        call.compile();
+
+        calls.put(procedure, call);
+        statistics.put(procedure, newStatistics(procedure));
+    }
+
+    /**
+     * Prepare a SYS_REFCURSOR procedure call (OUT cursor last)
+     */
+    private void registerCursor(String procedure, int inParameters) {
+        cursorCalls.put(procedure, "{call " + procedure + "(" +
+                String.join(", ", Collections.nCopies(inParameters + 1, "?")) + ")}");
+        statistics.put(procedure, newStatistics(procedure));
+    }
+
+    private CallStatistics newStatistics(String procedure) {
+        return new CallStatistics(
+                Timer.builder(METRIC_NAME)
+                        .description("Stored procedure call latency")
+                        .tag("procedure", procedure)
+                        .register(meterRegistry),
+                Counter.builder(METRIC_NAME + ".errors")
+                        .description("Stored procedure call failures")
+                        .tag("procedure", procedure)
+                        .register(meterRegistry));
+    }
+
+    /**
+     * Per-procedure meters
+     */
+    private static class CallStatistics {
+        private final Timer timer;
+        private final Counter errors;
+
+        CallStatistics(Timer timer, Counter errors) {
+            this.timer = timer;
+            this.errors = errors;
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("calls", timer.count());
+            map.put("errors", (long) errors.count());
+            map.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            map.put("avgMs", timer.mean(TimeUnit.MILLISECONDS));
+            map.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            return map;
+        }
+    }
+}
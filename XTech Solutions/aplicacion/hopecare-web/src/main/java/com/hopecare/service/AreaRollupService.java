@@ -0,0 +1,362 @@
+package com.hopecare.service;
+
+import com.hopecare.model.Beneficiary;
+import com.hopecare.repository.DatabaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Area Rollup Service
+ * Keeps per-district and per-city totals in memory: active beneficiaries,
+ * people served (family_size), completed deliveries, quantity and value.
+ * Each beneficiary's contribution is tracked so that moving a beneficiary to
+ * another district/city moves its deliveries with it, as vw_delivery_details
+ * does. Seeded at startup, updated in place by the services on every write,
+ * and reconciled against the tables on a schedule.
+ */
+@Service
+public class AreaRollupService {
+
+    public static final String LEVEL_CITY = "city";
+    public static final String LEVEL_DISTRICT = "district";
+
+    private static final Logger log = LoggerFactory.getLogger(AreaRollupService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    private final Object reloadMonitor = new Object();
+    private Map<Long, Footprint> footprints = new HashMap<>(); // guarded by this
+    private Map<AreaKey, AreaTotals> areas = new HashMap<>();  // guarded by this
+    private Set<Long> touchedDuringReload;                     // guarded by this
+    private volatile boolean loaded = false;
+
+    /**
+     * Seed the rollup once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Area rollup not seeded, will load on first read: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconcile the rollup against the tables
+     */
+    @Scheduled(initialDelayString = "${hopecare.areas.reconcile-interval-ms:900000}",
+               fixedDelayString = "${hopecare.areas.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Area rollup reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the totals per district and city (level "city") or per district
+     * (level "district"), optionally for one district, ordered by area
+     */
+    public List<Map<String, Object>> getRollups(String district, String level) {
+        String rollupLevel = level == null || level.trim().isEmpty()
+                ? LEVEL_CITY : level.trim().toLowerCase(Locale.ROOT);
+        if (!LEVEL_CITY.equals(rollupLevel) && !LEVEL_DISTRICT.equals(rollupLevel)) {
+            throw new IllegalArgumentException("Level must be city or district");
+        }
+        String districtFilter = normalize(district);
+        if (!loaded) {
+            reload();
+        }
+
+        Map<AreaKey, AreaTotals> selected = new HashMap<>();
+        synchronized (this) {
+            areas.forEach((key, totals) -> {
+                if (districtFilter != null && !districtFilter.equals(key.district)) {
+                    return;
+                }
+                AreaKey target = LEVEL_DISTRICT.equals(rollupLevel) ? new AreaKey(key.district, null) : key;
+                selected.computeIfAbsent(target, k -> new AreaTotals()).add(totals);
+            });
+        }
+
+        List<AreaKey> keys = new ArrayList<>(selected.keySet());
+        keys.sort(Comparator.comparing((AreaKey key) -> key.district, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(key -> key.city, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<Map<String, Object>> rollups = new ArrayList<>(keys.size());
+        for (AreaKey key : keys) {
+            AreaTotals totals = selected.get(key);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("district", key.district);
+            if (LEVEL_CITY.equals(rollupLevel)) {
+                row.put("city", key.city);
+            }
+            row.put("activeBeneficiaries", totals.activeBeneficiaries);
+            row.put("peopleServed", totals.peopleServed);
+            row.put("deliveries", totals.deliveries);
+            row.put("quantityDelivered", totals.quantity);
+            row.put("totalValuePen", totals.value);
+            rollups.add(row);
+        }
+        return rollups;
+    }
+
+    /**
+     * Beneficiary registered or updated (both leave it active)
+     */
+    public void onBeneficiarySaved(Long beneficiaryId, Beneficiary beneficiary) {
+        if (beneficiaryId == null) {
+            return;
+        }
+        int familySize = beneficiary.getFamilySize() != null ? beneficiary.getFamilySize() : 1;
+        AreaKey area = new AreaKey(normalize(beneficiary.getDistrict()), normalize(beneficiary.getCity()));
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            markTouched(beneficiaryId);
+            Footprint footprint = footprints.get(beneficiaryId);
+            Footprint updated = footprint != null ? footprint.copy() : new Footprint();
+            updated.area = area;
+            updated.familySize = familySize;
+            updated.active = true;
+            replace(beneficiaryId, updated);
+        }
+    }
+
+    /**
+     * Completed delivery written (a null value re-reads the beneficiary's totals)
+     */
+    public void onDeliveryPerformed(Long beneficiaryId, int quantity, BigDecimal totalValue) {
+        if (beneficiaryId == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            markTouched(beneficiaryId);
+            Footprint footprint = footprints.get(beneficiaryId);
+            if (footprint != null && totalValue != null) {
+                Footprint updated = footprint.copy();
+                updated.deliveries++;
+                updated.quantity += quantity;
+                updated.value = updated.value.add(totalValue);
+                replace(beneficiaryId, updated);
+                return;
+            }
+        }
+        refresh(Collections.singletonList(beneficiaryId));
+    }
+
+    /**
+     * Force the next read to reload from the tables
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Re-read specific beneficiaries and swap their contributions
+     */
+    private void refresh(Collection<Long> beneficiaryIds) {
+        try {
+            List<Map<String, Object>> rows = repository.getBeneficiaryFootprints(beneficiaryIds);
+            synchronized (this) {
+                Set<Long> missing = new HashSet<>(beneficiaryIds);
+                for (Map<String, Object> row : rows) {
+                    Long beneficiaryId = ((Number) row.get("beneficiary_id")).longValue();
+                    missing.remove(beneficiaryId);
+                    replace(beneficiaryId, toFootprint(row));
+                }
+                missing.forEach(beneficiaryId -> replace(beneficiaryId, null));
+            }
+        } catch (Exception e) {
+            log.warn("Area rollup refresh of {} failed: {}", beneficiaryIds, e.getMessage());
+            invalidate();
+        }
+    }
+
+    /**
+     * Rebuild all totals from the tables; beneficiaries written meanwhile are re-read afterwards
+     */
+    private void reload() {
+        synchronized (reloadMonitor) {
+            Set<Long> touched = new HashSet<>();
+            synchronized (this) {
+                touchedDuringReload = touched;
+            }
+
+            Map<Long, Footprint> freshFootprints = new HashMap<>();
+            Map<AreaKey, AreaTotals> freshAreas = new HashMap<>();
+            try {
+                repository.streamBeneficiaryFootprints(row -> {
+                    Footprint footprint = toFootprint(row);
+                    freshFootprints.put(((Number) row.get("beneficiary_id")).longValue(), footprint);
+                    freshAreas.computeIfAbsent(footprint.area, k -> new AreaTotals()).add(footprint, 1);
+                });
+            } finally {
+                synchronized (this) {
+                    touchedDuringReload = null;
+                }
+            }
+
+            synchronized (this) {
+                footprints = freshFootprints;
+                areas = freshAreas;
+                loaded = true;
+            }
+            if (!touched.isEmpty()) {
+                refresh(touched);
+            }
+        }
+    }
+
+    private void markTouched(Long beneficiaryId) {
+        if (touchedDuringReload != null) {
+            touchedDuringReload.add(beneficiaryId);
+        }
+    }
+
+    /**
+     * Swap one beneficiary's contribution (caller holds the lock)
+     */
+    private void replace(Long beneficiaryId, Footprint updated) {
+        Footprint previous = updated != null ? footprints.put(beneficiaryId, updated) : footprints.remove(beneficiaryId);
+        if (previous != null) {
+            AreaTotals totals = areas.get(previous.area);
+            totals.add(previous, -1);
+            if (totals.isEmpty()) {
+                areas.remove(previous.area);
+            }
+        }
+        if (updated != null) {
+            areas.computeIfAbsent(updated.area, k -> new AreaTotals()).add(updated, 1);
+        }
+    }
+
+    private Footprint toFootprint(Map<String, Object> row) {
+        Footprint footprint = new Footprint();
+        footprint.area = new AreaKey(normalize((String) row.get("district")), normalize((String) row.get("city")));
+        footprint.familySize = row.get("family_size") != null ? ((Number) row.get("family_size")).intValue() : 1;
+        footprint.active = "Y".equals(row.get("is_active"));
+        footprint.deliveries = ((Number) row.get("deliveries")).longValue();
+        footprint.quantity = ((Number) row.get("quantity")).longValue();
+        footprint.value = new BigDecimal(row.get("total_value").toString());
+        return footprint;
+    }
+
+    /**
+     * Areas compare ignoring case and surrounding blanks, like get_beneficiaries_by_district
+     */
+    private static String normalize(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return null;
+        }
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * District and city (either may be null)
+     */
+    private static final class AreaKey {
+        private final String district;
+        private final String city;
+
+        AreaKey(String district, String city) {
+            this.district = district;
+            this.city = city;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof AreaKey)) return false;
+            AreaKey other = (AreaKey) o;
+            return Objects.equals(district, other.district) && Objects.equals(city, other.city);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(district, city);
+        }
+    }
+
+    /**
+     * One beneficiary's area and completed delivery totals
+     */
+    private static class Footprint {
+        private AreaKey area;
+        private int familySize;
+        private boolean active;
+        private long deliveries;
+        private long quantity;
+        private BigDecimal value = BigDecimal.ZERO;
+
+        Footprint copy() {
+            Footprint copy = new Footprint();
+            copy.area = area;
+            copy.familySize = familySize;
+            copy.active = active;
+            copy.deliveries = deliveries;
+            copy.quantity = quantity;
+            copy.value = value;
+            return copy;
+        }
+    }
+
+    /**
+     * Totals of one area
+     */
+    private static class AreaTotals {
+        private long activeBeneficiaries;
+        private long peopleServed;
+        private long deliveries;
+        private long quantity;
+        private BigDecimal value = BigDecimal.ZERO;
+
+        void add(Footprint footprint, int sign) {
+            if (footprint.active) {
+                activeBeneficiaries += sign;
+                peopleServed += (long) sign * footprint.familySize;
+            }
+            deliveries += sign * footprint.deliveries;
+            quantity += sign * footprint.quantity;
+            value = sign > 0 ? value.add(footprint.value) : value.subtract(footprint.value);
+        }
+
+        void add(AreaTotals other) {
+            activeBeneficiaries += other.activeBeneficiaries;
+            peopleServed += other.peopleServed;
+            deliveries += other.deliveries;
+            quantity += other.quantity;
+            value = value.add(other.value);
+        }
+
+        boolean isEmpty() {
+            return activeBeneficiaries == 0 && deliveries == 0;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.hopecare.service;
+
+import com.hopecare.model.AuditEvent;
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit Service
+ * Application audit mode: while the INSERT audit trigger of a table is
+ * disabled (switched once for the whole schema by 16_audit_mode.sql), the
+ * services publish its INSERT audit events to a bounded in-memory buffer
+ * and a background writer inserts them into tbl_audit_* in JDBC batches,
+ * so auditing leaves the write path. The trigger state is read at startup
+ * and every hopecare.audit.mode-check-interval-ms; this service never
+ * changes it. UPDATE and DELETE audits always stay in the triggers.
+ * Events are never dropped: failed batches are retried, a full buffer
+ * makes the publisher wait briefly and then write its event itself, the
+ * buffer is drained on shutdown, and when application mode is detected
+ * INSERT audits missing for recent rows (a crash before a flush, inserts
+ * made before the switch was seen) are recovered from the tables. Rows
+ * that already have an INSERT audit are never audited twice.
+ * Reported as hopecare.audit.queue.depth, hopecare.audit.events (tag:
+ * outcome), hopecare.audit.backpressure and hopecare.audit.write.
+ */
+@Service
+public class AuditService {
+
+    public static final String METRIC_NAME = "hopecare.audit";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.audit.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${hopecare.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${hopecare.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${hopecare.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${hopecare.audit.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${hopecare.audit.recovery-window-hours:24}")
+    private int recoveryWindowHours;
+
+    private BlockingQueue<AuditEvent> buffer;
+    private volatile Set<String> applicationAudited = Collections.emptySet();
+    private volatile boolean running = false;
+    private Thread writer;
+    private volatile List<AuditEvent> unwritten = Collections.emptyList();
+
+    private Counter writtenCounter;
+    private Counter missingCounter;
+    private Counter failedCounter;
+    private Counter backpressureCounter;
+    private Timer writeTimer;
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        Gauge.builder(METRIC_NAME + ".queue.depth", buffer, Collection::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        writtenCounter = eventCounter("written");
+        missingCounter = eventCounter("missing");
+        failedCounter = eventCounter("failed");
+        backpressureCounter = Counter.builder(METRIC_NAME + ".backpressure")
+                .description("Audit events written by the publisher because the buffer was full")
+                .register(meterRegistry);
+        writeTimer = Timer.builder(METRIC_NAME + ".write")
+                .description("Audit batch write latency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Read the audit mode once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        checkMode();
+    }
+
+    /**
+     * Follow the schema's audit mode (switched by 16_audit_mode.sql)
+     */
+    @Scheduled(initialDelayString = "${hopecare.audit.mode-check-interval-ms:60000}",
+               fixedDelayString = "${hopecare.audit.mode-check-interval-ms:60000}")
+    public synchronized void checkMode() {
+        Set<String> entities;
+        try {
+            entities = Collections.unmodifiableSet(repository.getApplicationAuditedEntities());
+        } catch (Exception e) {
+            log.warn("Audit trigger state could not be read, keeping {}: {}",
+                     applicationAudited.isEmpty() ? "trigger mode" : "application mode for " + applicationAudited,
+                     e.getMessage());
+            return;
+        }
+        if (entities.equals(applicationAudited)) {
+            return;
+        }
+        boolean switchedOn = !applicationAudited.containsAll(entities);
+        if (!entities.isEmpty() && writer == null) {
+            running = true;
+            writer = new Thread(this::writeLoop, "audit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        applicationAudited = entities;
+        log.info(entities.isEmpty() ? "Trigger audit mode active"
+                 : "Application audit mode active for " + entities + ", INSERT audit triggers disabled");
+
+        if (switchedOn) {
+            // Covers rows inserted before the disabled trigger was seen
+            try {
+                int recovered = repository.recoverMissingAudits(recoveryWindowHours);
+                if (recovered > 0) {
+                    log.warn("Recovered {} missing audit records from the last {} hours", recovered, recoveryWindowHours);
+                }
+            } catch (Exception e) {
+                log.warn("Audit recovery failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flush everything still buffered before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<AuditEvent> remaining = new ArrayList<>(unwritten);
+        buffer.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<AuditEvent> batch = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+            if (!write(batch)) {
+                log.error("{} audit events not written at shutdown, recovered on next start", remaining.size() - from);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whether the services publish the INSERT audits of an entity
+     */
+    public boolean isEnabled(String entity) {
+        return applicationAudited.contains(entity);
+    }
+
+    /**
+     * Audit an inserted donation or delivery (after commit when called in a transaction)
+     */
+    public void publishInsert(String entity, Long entityId, Long changedBy) {
+        if (entityId != null) {
+            publishInserts(entity, Collections.singletonList(entityId), changedBy);
+        }
+    }
+
+    /**
+     * Audit inserted donations or deliveries (after commit when called in a transaction)
+     */
+    public void publishInserts(String entity, List<Long> entityIds, Long changedBy) {
+        if (!isEnabled(entity) || entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<AuditEvent> events = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            events.add(new AuditEvent(entity, entityId, AuditEvent.INSERT, changedBy, now));
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The writer reads the stored row, so it must not run before the commit
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(events);
+                }
+            });
+        } else {
+            enqueue(events);
+        }
+    }
+
+    private void enqueue(List<AuditEvent> events) {
+        int queued = 0;
+        try {
+            while (queued < events.size() && buffer.offer(events.get(queued), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                queued++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditEvent> overflow = events.subList(queued, events.size());
+        if (!overflow.isEmpty()) {
+            // Back-pressure: the writer is behind, the publisher pays for its own events
+            backpressureCounter.increment(overflow.size());
+            if (!write(overflow)) {
+                log.error("Audit events for {} {} could not be written", overflow.get(0).getEntity(),
+                          overflow.stream().map(AuditEvent::getEntityId).toArray());
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    AuditEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - 1);
+                }
+                if (write(batch)) {
+                    batch.clear();
+                } else {
+                    Thread.sleep(retryBackoffMs);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    break;
+                }
+            }
+        }
+        // Left for the shutdown flush
+        unwritten = batch;
+    }
+
+    private boolean write(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            int missing = repository.insertAuditEvents(batch);
+            writtenCounter.increment(batch.size() - missing);
+            if (missing > 0) {
+                missingCounter.increment(missing);
+                log.warn("{} audit events skipped, rows already audited or no longer exist", missing);
+            }
+            return true;
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Audit batch of {} failed, will retry: {}", batch.size(), e.getMessage());
+            return false;
+        } finally {
+            writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Counter eventCounter(String outcome) {
+        return Counter.builder(METRIC_NAME + ".events")
+                .description("Audit events processed by the writer")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -68,7 +68,7 @@ public class AuthService {
      * Hash password using MD5
      * FIXED VERSION - Ensures correct MD5 hash generation
      */
-    private String hashPasswordMD5(String password) {
+    String hashPasswordMD5(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
             byte[] messageDigest = md.digest(password.getBytes());
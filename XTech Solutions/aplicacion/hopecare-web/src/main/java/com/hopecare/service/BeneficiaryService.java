@@ -1,6 +1,9 @@
 package com.hopecare.service;
 
+import com.hopecare.config.ReadOnly;
 import com.hopecare.model.Beneficiary;
+import com.hopecare.model.PageResult;
+import com.hopecare.model.SearchResult;
 import com.hopecare.repository.DatabaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,13 +20,34 @@ public class BeneficiaryService {
     @Autowired
     private DatabaseRepository repository;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private AreaRollupService areaRollup;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
      * Get all active beneficiaries
      */
+    @ReadOnly
     public List<Beneficiary> getAllBeneficiaries() {
         return repository.getAllBeneficiaries();
     }
 
+    /**
+     * Get one page of beneficiaries (cursor from the previous page, null for the first)
+     */
+    @ReadOnly
+    public PageResult<Beneficiary> getBeneficiariesPage(String cursor, Integer size) {
+        return repository.getBeneficiariesPage(cursor, size);
+    }
+
     /**
      * Get beneficiary by ID
      */
@@ -36,7 +60,12 @@ public class BeneficiaryService {
      */
     public Long registerBeneficiary(Beneficiary beneficiary) {
         validateBeneficiary(beneficiary);
-        return repository.registerBeneficiary(beneficiary);
+        Long beneficiaryId = repository.registerBeneficiary(beneficiary);
+        dashboardMetrics.onBeneficiaryRegistered(beneficiaryId, beneficiary.getFamilySize());
+        searchIndex.index(SearchResult.BENEFICIARY, beneficiaryId);
+        areaRollup.onBeneficiarySaved(beneficiaryId, beneficiary);
+        dataVersions.bump(DataVersionService.Entity.BENEFICIARIES, DataVersionService.Entity.DASHBOARD);
+        return beneficiaryId;
     }
 
     /**
@@ -47,7 +76,17 @@ public class BeneficiaryService {
         if (beneficiary.getBeneficiaryId() == null) {
             throw new IllegalArgumentException("Beneficiary ID is required for update");
         }
+        Beneficiary previous = repository.getBeneficiaryById(beneficiary.getBeneficiaryId());
         repository.updateBeneficiary(beneficiary);
+        if (previous != null) {
+            dashboardMetrics.onBeneficiaryUpdated(beneficiary.getBeneficiaryId(), previous.getFamilySize(),
+                                                  beneficiary.getFamilySize());
+        } else {
+            dashboardMetrics.invalidate();
+        }
+        searchIndex.index(SearchResult.BENEFICIARY, beneficiary.getBeneficiaryId());
+        areaRollup.onBeneficiarySaved(beneficiary.getBeneficiaryId(), beneficiary);
+        dataVersions.bump(DataVersionService.Entity.BENEFICIARIES, DataVersionService.Entity.DASHBOARD);
     }
 
     /**
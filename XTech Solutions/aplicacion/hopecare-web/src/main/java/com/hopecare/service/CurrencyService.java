@@ -0,0 +1,183 @@
+package com.hopecare.service;
+
+import com.hopecare.repository.DatabaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Currency Service
+ * Converts amounts to PEN in Java using an immutable, date-indexed snapshot
+ * of tbl_exchange_rates. The rate applied is the active rate with the latest
+ * effective_date on or before the conversion date (the most recently created
+ * one wins ties). Results are exact PEN minor units (centimos); every
+ * donation is rounded on its own, so totals rebuilt from the tables match
+ * totals kept by adding donations as they are registered.
+ */
+@Service
+public class CurrencyService {
+
+    public static final String BASE_CURRENCY = "PEN";
+    private static final int BASE_SCALE = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    private volatile RateSnapshot snapshot;
+
+    /**
+     * Reload the snapshot on a schedule (swapped atomically)
+     */
+    @Scheduled(initialDelayString = "${hopecare.currency.refresh-interval-ms:600000}",
+               fixedDelayString = "${hopecare.currency.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Exchange rate refresh failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load currencies and active PEN rates into a new snapshot
+     */
+    public void refresh() {
+        Long baseCurrencyId = null;
+        for (Map<String, Object> currency : repository.getAllCurrencies()) {
+            if (BASE_CURRENCY.equals(currency.get("currency_code"))) {
+                baseCurrencyId = ((Number) currency.get("currency_id")).longValue();
+            }
+        }
+        if (baseCurrencyId == null) {
+            throw new IllegalStateException("Base currency " + BASE_CURRENCY + " not found");
+        }
+
+        Map<Long, NavigableMap<LocalDate, BigDecimal>> rates = new HashMap<>();
+        // Rows arrive ordered by effective_date, exchange_rate_id: later rows win ties
+        for (Map<String, Object> row : repository.getActiveExchangeRates(baseCurrencyId)) {
+            Long fromCurrencyId = ((Number) row.get("from_currency_id")).longValue();
+            LocalDate effectiveDate = toLocalDate(row.get("effective_date"));
+            BigDecimal rate = new BigDecimal(row.get("exchange_rate").toString());
+            rates.computeIfAbsent(fromCurrencyId, id -> new TreeMap<>()).put(effectiveDate, rate);
+        }
+        rates.replaceAll((id, byDate) -> Collections.unmodifiableNavigableMap(byDate));
+
+        snapshot = new RateSnapshot(baseCurrencyId, Collections.unmodifiableMap(rates));
+    }
+
+    /**
+     * Get the base (PEN) currency ID
+     */
+    public Long getBaseCurrencyId() {
+        return current().baseCurrencyId;
+    }
+
+    /**
+     * Get the rate to PEN effective on the given date
+     */
+    public BigDecimal getRateToBase(Long currencyId, LocalDate date) {
+        RateSnapshot rates = current();
+        if (currencyId == null || currencyId.equals(rates.baseCurrencyId)) {
+            return BigDecimal.ONE;
+        }
+        NavigableMap<LocalDate, BigDecimal> byDate = rates.ratesToBase.get(currencyId);
+        if (byDate == null || byDate.isEmpty()) {
+            throw new IllegalArgumentException("Exchange rate not found for currency " + currencyId);
+        }
+        Map.Entry<LocalDate, BigDecimal> entry = byDate.floorEntry(date != null ? date : LocalDate.now());
+        // Dates before the first known rate use the earliest rate available
+        return entry != null ? entry.getValue() : byDate.firstEntry().getValue();
+    }
+
+    /**
+     * Convert an amount to PEN minor units (centimos), rounded half-up
+     */
+    public long toBaseMinorUnits(BigDecimal amount, Long currencyId, LocalDate date) {
+        return toBase(amount, currencyId, date).movePointRight(BASE_SCALE).longValueExact();
+    }
+
+    /**
+     * Convert an amount to PEN with two decimals, rounded half-up
+     */
+    public BigDecimal toBase(BigDecimal amount, Long currencyId, LocalDate date) {
+        if (amount == null) {
+            return BigDecimal.ZERO.setScale(BASE_SCALE);
+        }
+        return amount.multiply(getRateToBase(currencyId, date)).setScale(BASE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sum money donations counted per (currency, day, amount) into PEN,
+     * converting each donation like toBase does
+     */
+    public BigDecimal sumToBase(Iterable<Map<String, Object>> countsByCurrencyDayAndAmount) {
+        long minorUnits = 0;
+        for (Map<String, Object> row : countsByCurrencyDayAndAmount) {
+            Object amount = row.get("amount");
+            if (amount == null) {
+                continue;
+            }
+            Long currencyId = row.get("currency_id") != null ? ((Number) row.get("currency_id")).longValue() : null;
+            minorUnits += toBaseMinorUnits(new BigDecimal(amount.toString()), currencyId,
+                                           toLocalDate(row.get("donation_day")))
+                          * ((Number) row.get("donations")).longValue();
+        }
+        return BigDecimal.valueOf(minorUnits, BASE_SCALE);
+    }
+
+    /**
+     * Oracle DATE columns come back as Timestamp from queryForList
+     */
+    private LocalDate toLocalDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private RateSnapshot current() {
+        RateSnapshot rates = snapshot;
+        if (rates == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                rates = snapshot;
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Immutable rate table: from currency ID -> effective date -> rate to PEN
+     */
+    private static class RateSnapshot {
+        private final Long baseCurrencyId;
+        private final Map<Long, NavigableMap<LocalDate, BigDecimal>> ratesToBase;
+
+        RateSnapshot(Long baseCurrencyId, Map<Long, NavigableMap<LocalDate, BigDecimal>> ratesToBase) {
+            this.baseCurrencyId = baseCurrencyId;
+            this.ratesToBase = ratesToBase;
+        }
+    }
+}
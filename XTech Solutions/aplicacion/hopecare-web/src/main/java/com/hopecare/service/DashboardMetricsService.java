@@ -0,0 +1,333 @@
+package com.hopecare.service;
+
+import com.hopecare.repository.DatabaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dashboard Metrics Service
+ * Keeps the vw_dashboard_metrics figures in memory. Seeded once at startup,
+ * updated in place by the services on every write, and reconciled against
+ * the view on a schedule (which also rolls the 30-day windows and the
+ * inventory stock counts forward). Writes reported while a reconciliation
+ * runs are re-applied to its result only when its snapshot missed them.
+ */
+@Service
+public class DashboardMetricsService {
+
+    public static final String TOTAL_ACTIVE_DONORS = "TOTAL_ACTIVE_DONORS";
+    public static final String NEW_DONORS_LAST_MONTH = "NEW_DONORS_LAST_MONTH";
+    public static final String TOTAL_ACTIVE_BENEFICIARIES = "TOTAL_ACTIVE_BENEFICIARIES";
+    public static final String TOTAL_PEOPLE_SERVED = "TOTAL_PEOPLE_SERVED";
+    public static final String TOTAL_ACTIVE_PROGRAMS = "TOTAL_ACTIVE_PROGRAMS";
+    public static final String TOTAL_DONATIONS_ALL_TIME = "TOTAL_DONATIONS_ALL_TIME";
+    public static final String DONATIONS_LAST_MONTH = "DONATIONS_LAST_MONTH";
+    public static final String TOTAL_DONATIONS_VALUE_PEN = "TOTAL_DONATIONS_VALUE_PEN";
+    public static final String TOTAL_DELIVERIES_COMPLETED = "TOTAL_DELIVERIES_COMPLETED";
+    public static final String DELIVERIES_LAST_MONTH = "DELIVERIES_LAST_MONTH";
+    public static final String TOTAL_DELIVERIES_VALUE_PEN = "TOTAL_DELIVERIES_VALUE_PEN";
+
+    // Source tables of the metrics, to tell whether a reload's snapshot saw a write
+    private static final String DONORS = "tbl_donors";
+    private static final String BENEFICIARIES = "tbl_beneficiaries";
+    private static final String PROGRAMS = "tbl_programs";
+    private static final String DONATIONS = "tbl_donations";
+    private static final String DELIVERIES = "tbl_deliveries";
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardMetricsService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    private final Object reloadMonitor = new Object();
+    private Map<String, BigDecimal> metrics = new HashMap<>(); // guarded by this
+    private List<Change> changesDuringReload;                  // guarded by this
+    private volatile boolean loaded = false;
+
+    /**
+     * Seed metrics once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Dashboard metrics not seeded, will load on first read: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconcile in-memory metrics against vw_dashboard_metrics
+     */
+    @Scheduled(initialDelayString = "${hopecare.dashboard.reconcile-interval-ms:300000}",
+               fixedDelayString = "${hopecare.dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Dashboard metrics reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get a snapshot of the current metrics (same keys as the view)
+     */
+    public Map<String, Object> getMetrics() {
+        if (!loaded) {
+            reload();
+        }
+        Map<String, Object> snapshot = new LinkedCaseInsensitiveMap<>();
+        synchronized (this) {
+            snapshot.putAll(metrics);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Donor registered
+     */
+    public void onDonorRegistered(Long donorId) {
+        apply(new Change(DONORS, donorId, null)
+                .add(TOTAL_ACTIVE_DONORS, BigDecimal.ONE)
+                .add(NEW_DONORS_LAST_MONTH, BigDecimal.ONE));
+    }
+
+    /**
+     * Beneficiary registered
+     */
+    public void onBeneficiaryRegistered(Long beneficiaryId, Integer familySize) {
+        apply(new Change(BENEFICIARIES, beneficiaryId, familySize != null ? familySize : 1)
+                .add(TOTAL_ACTIVE_BENEFICIARIES, BigDecimal.ONE)
+                .add(TOTAL_PEOPLE_SERVED, BigDecimal.valueOf(familySize != null ? familySize : 1)));
+    }
+
+    /**
+     * Beneficiary updated (family_size is stored as 1 when not given)
+     */
+    public void onBeneficiaryUpdated(Long beneficiaryId, Integer previousFamilySize, Integer familySize) {
+        int size = familySize != null ? familySize : 1;
+        int delta = size - (previousFamilySize != null ? previousFamilySize : 1);
+        Change change = new Change(BENEFICIARIES, beneficiaryId, size);
+        change.updated = true;
+        if (delta != 0) {
+            change.add(TOTAL_PEOPLE_SERVED, BigDecimal.valueOf(delta));
+        }
+        apply(change);
+    }
+
+    /**
+     * Program created
+     */
+    public void onProgramCreated(Long programId) {
+        apply(new Change(PROGRAMS, programId, null)
+                .add(TOTAL_ACTIVE_PROGRAMS, BigDecimal.ONE));
+    }
+
+    /**
+     * Donation registered (value already converted to PEN)
+     */
+    public void onDonationRegistered(Long donationId, BigDecimal valuePen) {
+        Change change = new Change(DONATIONS, donationId, null)
+                .add(TOTAL_DONATIONS_ALL_TIME, BigDecimal.ONE)
+                .add(DONATIONS_LAST_MONTH, BigDecimal.ONE);
+        if (valuePen != null) {
+            change.add(TOTAL_DONATIONS_VALUE_PEN, valuePen);
+        }
+        apply(change);
+    }
+
+    /**
+     * Delivery completed
+     */
+    public void onDeliveryPerformed(Long deliveryId, BigDecimal totalValue) {
+        Change change = new Change(DELIVERIES, deliveryId, null)
+                .add(TOTAL_DELIVERIES_COMPLETED, BigDecimal.ONE)
+                .add(DELIVERIES_LAST_MONTH, BigDecimal.ONE);
+        if (totalValue != null) {
+            change.add(TOTAL_DELIVERIES_VALUE_PEN, totalValue);
+        }
+        apply(change);
+    }
+
+    /**
+     * Force the next read to reload from the view
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Replace all metrics with the current view values
+     * The view, the donation value queries and the rows written meanwhile
+     * are read in one snapshot. A write is reported only after it
+     * committed, so it may or may not be in that snapshot: its change is
+     * re-applied only when its row is not (for beneficiary updates, by the
+     * family size the snapshot holds).
+     */
+    private void reload() {
+        synchronized (reloadMonitor) {
+            List<Change> changes = new ArrayList<>();
+            synchronized (this) {
+                changesDuringReload = changes;
+            }
+
+            boolean changed;
+            try {
+                changed = repository.inSnapshot(() -> {
+                    Map<String, BigDecimal> fresh = new HashMap<>();
+                    repository.getDashboardMetrics()
+                            .forEach((key, value) -> fresh.put(key.toUpperCase(), toBigDecimal(value)));
+                    fresh.put(TOTAL_DONATIONS_VALUE_PEN, currencyService
+                            .sumToBase(repository.getMoneyDonationCountsByCurrencyDayAndAmount())
+                            .add(repository.getProductDonationsTotalValue()));
+                    return replayAndSwap(fresh, changes);
+                });
+            } finally {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+            }
+            if (changed) {
+                // Out-of-band changes and rolled windows must reach cached dashboards
+                dataVersions.bump(DataVersionService.Entity.DASHBOARD);
+            }
+        }
+    }
+
+    /**
+     * Look up the rows of changes recorded during the reload (inside its
+     * snapshot) until none is left unchecked, then apply the ones the
+     * snapshot missed and swap; the last check and the swap share one lock
+     * so no change slips in between. Returns whether the metrics changed.
+     */
+    private boolean replayAndSwap(Map<String, BigDecimal> fresh, List<Change> changes) {
+        Map<String, Set<Long>> existing = new HashMap<>();
+        Map<Long, Integer> familySizes = new HashMap<>();
+        int checked = 0;
+        while (true) {
+            List<Change> unchecked;
+            synchronized (this) {
+                if (checked == changes.size()) {
+                    changesDuringReload = null;
+                    replay(fresh, changes, existing, familySizes);
+                    boolean changed = !fresh.equals(metrics);
+                    metrics = fresh;
+                    loaded = true;
+                    return changed;
+                }
+                unchecked = new ArrayList<>(changes.subList(checked, changes.size()));
+                checked = changes.size();
+            }
+
+            Map<String, List<Long>> idsByTable = new HashMap<>();
+            for (Change change : unchecked) {
+                if (change.id != null) {
+                    idsByTable.computeIfAbsent(change.table, table -> new ArrayList<>()).add(change.id);
+                }
+            }
+            idsByTable.forEach((table, ids) -> {
+                if (BENEFICIARIES.equals(table)) {
+                    familySizes.putAll(repository.getActiveFamilySizes(ids));
+                }
+                existing.computeIfAbsent(table, key -> new HashSet<>())
+                        .addAll(repository.getExistingIds(table, ids));
+            });
+        }
+    }
+
+    /**
+     * Add to the snapshot's metrics what it does not contain yet (caller holds the lock)
+     */
+    private void replay(Map<String, BigDecimal> fresh, List<Change> changes,
+                        Map<String, Set<Long>> existing, Map<Long, Integer> familySizes) {
+        // Beneficiaries are compared by their latest family size, not by change
+        Map<Long, Change> latestBeneficiary = new LinkedHashMap<>();
+        Set<Long> registeredBeneficiaries = new HashSet<>();
+        for (Change change : changes) {
+            if (change.id == null) {
+                change.deltas.forEach((key, delta) -> fresh.merge(key, delta, BigDecimal::add));
+            } else if (BENEFICIARIES.equals(change.table)) {
+                latestBeneficiary.put(change.id, change);
+                if (!change.updated) {
+                    registeredBeneficiaries.add(change.id);
+                }
+            } else if (!existing.getOrDefault(change.table, Collections.emptySet()).contains(change.id)) {
+                change.deltas.forEach((key, delta) -> fresh.merge(key, delta, BigDecimal::add));
+            }
+        }
+        latestBeneficiary.forEach((beneficiaryId, change) -> {
+            Integer snapshotSize = familySizes.get(beneficiaryId);
+            if (snapshotSize != null) {
+                fresh.merge(TOTAL_PEOPLE_SERVED, BigDecimal.valueOf(change.familySize - snapshotSize),
+                            BigDecimal::add);
+            } else if (registeredBeneficiaries.contains(beneficiaryId)
+                    && !existing.getOrDefault(BENEFICIARIES, Collections.emptySet()).contains(beneficiaryId)) {
+                fresh.merge(TOTAL_ACTIVE_BENEFICIARIES, BigDecimal.ONE, BigDecimal::add);
+                fresh.merge(TOTAL_PEOPLE_SERVED, BigDecimal.valueOf(change.familySize), BigDecimal::add);
+            }
+        });
+    }
+
+    private synchronized void apply(Change change) {
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+        if (loaded) {
+            change.deltas.forEach((key, delta) -> metrics.merge(key, delta, BigDecimal::add));
+        }
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    /**
+     * One reported write: the row it touched and what it added to the metrics
+     */
+    private static class Change {
+        private final String table;
+        private final Long id;
+        private final Integer familySize; // beneficiaries: family size after the write
+        private final Map<String, BigDecimal> deltas = new HashMap<>();
+        private boolean updated;
+
+        Change(String table, Long id, Integer familySize) {
+            this.table = table;
+            this.id = id;
+            this.familySize = familySize;
+        }
+
+        Change add(String key, BigDecimal delta) {
+            deltas.put(key, delta);
+            return this;
+        }
+    }
+}
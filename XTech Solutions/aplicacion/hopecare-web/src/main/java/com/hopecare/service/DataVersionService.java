@@ -0,0 +1,115 @@
+package com.hopecare.service;
+
+import com.hopecare.config.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data Version Service
+ * One in-memory version counter per entity, bumped by the services on every
+ * write (after commit when called in a transaction). The list, dashboard
+ * and inventory endpoints derive a strong ETag from the versions they read,
+ * so an If-None-Match revalidation is answered with 304 without touching
+ * the database. The tag also carries a per-start epoch (a restart never
+ * reuses a tag) and a time window of hopecare.etag.max-age-ms, which bounds
+ * how long writes made outside this instance (scripts, another node) can
+ * stay hidden behind a 304. A tagged request that follows a write to one
+ * of its entities closer than the replica may lag (max-lag-ms plus one
+ * lag check interval) reads from the primary, so a body from a lagging
+ * replica is never cached under the post-write tag.
+ */
+@Service
+public class DataVersionService {
+
+    public enum Entity { DONORS, BENEFICIARIES, PROGRAMS, DONATIONS, DELIVERIES, DASHBOARD }
+
+    private final Map<Entity, AtomicLong> versions = new EnumMap<>(Entity.class);
+    private final Map<Entity, AtomicLong> bumpedAt = new EnumMap<>(Entity.class);
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @Value("${hopecare.etag.max-age-ms:60000}")
+    private long maxAgeMs;
+
+    @Value("${hopecare.datasource.read.max-lag-ms:30000}")
+    private long replicaMaxLagMs;
+
+    @Value("${hopecare.datasource.read.lag-check-interval-ms:5000}")
+    private long replicaCheckIntervalMs;
+
+    public DataVersionService() {
+        for (Entity entity : Entity.values()) {
+            versions.put(entity, new AtomicLong());
+            bumpedAt.put(entity, new AtomicLong());
+        }
+    }
+
+    /**
+     * Record a write to the given entities
+     */
+    public void bump(Entity... entities) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A reader must not cache pre-commit data under the new version
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(entities);
+                }
+            });
+        } else {
+            increment(entities);
+        }
+    }
+
+    /**
+     * Current version of an entity
+     */
+    public long getVersion(Entity entity) {
+        return versions.get(entity).get();
+    }
+
+    /**
+     * Strong ETag for a response built from the given entities; the request
+     * path and query string are part of the tag, so each page has its own
+     */
+    public String etag(WebRequest request, Entity... entities) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch);
+        long replicaBehind = System.currentTimeMillis() - Math.max(0, replicaMaxLagMs) - replicaCheckIntervalMs;
+        for (Entity entity : entities) {
+            tag.append('-').append(Long.toString(getVersion(entity), 36));
+            if (bumpedAt.get(entity).get() > replicaBehind) {
+                // The replica may not have this version yet
+                ReadWriteRoutingDataSource.usePrimaryForRequest();
+            }
+        }
+        if (maxAgeMs > 0) {
+            tag.append('-').append(Long.toString(System.currentTimeMillis() / maxAgeMs, 36));
+        }
+        String resource = request.getDescription(false) + "?" + queryString(request);
+        tag.append('-').append(Integer.toHexString(resource.hashCode()));
+        return tag.append('"').toString();
+    }
+
+    private void increment(Entity... entities) {
+        long now = System.currentTimeMillis();
+        for (Entity entity : entities) {
+            bumpedAt.get(entity).set(now);
+            versions.get(entity).incrementAndGet();
+        }
+    }
+
+    private String queryString(WebRequest request) {
+        StringBuilder query = new StringBuilder();
+        request.getParameterMap().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(param -> query.append(param.getKey()).append('=')
+                                       .append(String.join(",", param.getValue())).append('&'));
+        return query.toString();
+    }
+}
@@ -1,12 +1,27 @@
 package com.hopecare.service;
 
+import com.hopecare.config.ReadOnly;
+import com.hopecare.model.AuditEvent;
 import com.hopecare.model.Delivery;
+import com.hopecare.model.DeliveryBatchEntry;
+import com.hopecare.model.PageResult;
+import com.hopecare.model.SearchResult;
 import com.hopecare.repository.DatabaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Delivery Service
@@ -18,16 +33,47 @@ public class DeliveryService {
     @Autowired
     private DatabaseRepository repository;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private StockReservationService stockReservations;
+
+    @Autowired
+    private AuditService audit;
+
+    @Autowired
+    private AreaRollupService areaRollup;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    @Value("${hopecare.deliveries.bulk-max-entries:1000}")
+    private int bulkMaxEntries;
+
     /**
      * Get all deliveries
      */
+    @ReadOnly
     public List<Delivery> getAllDeliveries() {
         return repository.getAllDeliveries();
     }
 
+    /**
+     * Get one page of deliveries (cursor from the previous page, null for the first)
+     */
+    @ReadOnly
+    public PageResult<Delivery> getDeliveriesPage(String cursor, Integer size) {
+        return repository.getDeliveriesPage(cursor, size);
+    }
+
     /**
      * Get inventory status
      */
+    @ReadOnly
     public List<Map<String, Object>> getInventoryStatus() {
         return repository.getInventoryStatus();
     }
@@ -36,7 +82,7 @@ public class DeliveryService {
      * Get dashboard metrics
      */
     public Map<String, Object> getDashboardMetrics() {
-        return repository.getDashboardMetrics();
+        return dashboardMetrics.getMetrics();
     }
 
     /**
@@ -62,9 +108,175 @@ public class DeliveryService {
             createdBy = 2L; // Default to assistant user
         }
 
-        // Repository will call PL/SQL which validates stock availability
-        return repository.performDelivery(beneficiaryId, programId, 
-                                         productDescription, quantity, 
-                                         notes, createdBy);
+        // Reserve in memory first so concurrent deliveries of the product cannot oversell;
+        // the PL/SQL still validates stock availability
+        StockReservationService.Reservation reservation =
+                stockReservations.reserve(programId, productDescription, quantity);
+        Long deliveryId;
+        try {
+            deliveryId = repository.performDelivery(beneficiaryId, programId,
+                                                    productDescription, quantity,
+                                                    notes, createdBy);
+        } catch (RuntimeException e) {
+            stockReservations.release(reservation);
+            throw e;
+        }
+        stockReservations.confirm(reservation);
+        BigDecimal totalValue = null;
+        try {
+            totalValue = repository.getDeliveryTotalValue(deliveryId);
+            dashboardMetrics.onDeliveryPerformed(deliveryId, totalValue);
+        } catch (Exception e) {
+            dashboardMetrics.invalidate();
+        }
+        areaRollup.onDeliveryPerformed(beneficiaryId, quantity, totalValue);
+        searchIndex.index(SearchResult.DELIVERY, deliveryId);
+        audit.publishInsert(AuditEvent.DELIVERY, deliveryId, createdBy);
+        dataVersions.bump(DataVersionService.Entity.DELIVERIES, DataVersionService.Entity.DASHBOARD);
+        return deliveryId;
+    }
+
+    /**
+     * Dispatch many deliveries of one program product in a single transaction
+     * The inventory row is locked and read once, entries are served in request
+     * order while stock lasts, accepted deliveries are inserted as one batch
+     * and stock is decremented with one update. Each entry is reserved in
+     * memory as it is accepted (kept on commit, given back on rollback), so a
+     * concurrent single delivery of the product only turns later entries
+     * down. Entries that are invalid or exceed the remaining stock are
+     * skipped and reported in the results.
+     */
+    @Transactional
+    public Map<String, Object> dispatchDeliveries(Long programId, String productDescription,
+                                                  List<DeliveryBatchEntry> entries, Long createdBy) {
+        if (programId == null || programId <= 0) {
+            throw new IllegalArgumentException("Program is required");
+        }
+        if (productDescription == null || productDescription.trim().isEmpty()) {
+            throw new IllegalArgumentException("Product description is required");
+        }
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("At least one delivery entry is required");
+        }
+        if (entries.size() > bulkMaxEntries) {
+            throw new IllegalArgumentException("A dispatch can contain at most " + bulkMaxEntries + " entries");
+        }
+        if (createdBy == null || createdBy <= 0) {
+            createdBy = 2L; // Default to assistant user
+        }
+
+        if (repository.getActiveProgramIds(Collections.singletonList(programId)).isEmpty()) {
+            throw new IllegalArgumentException("Program not found or inactive");
+        }
+        Map<String, Object> inventory = repository.lockInventoryItem(programId, productDescription);
+        if (inventory == null) {
+            throw new IllegalArgumentException("Product not found in program inventory");
+        }
+        int availableStock = ((Number) inventory.get("available_quantity")).intValue();
+        BigDecimal unitValue = inventory.get("unit_value") != null
+                ? new BigDecimal(inventory.get("unit_value").toString()) : null;
+
+        Set<Long> activeBeneficiaries = repository.getActiveBeneficiaryIds(entries.stream()
+                .map(DeliveryBatchEntry::getBeneficiaryId)
+                .filter(id -> id != null)
+                .collect(Collectors.toList()));
+
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(entries.size(), null));
+        List<DeliveryBatchEntry> accepted = new ArrayList<>();
+        int dispatchedQuantity = 0;
+        for (DeliveryBatchEntry entry : entries) {
+            String error = null;
+            if (entry.getBeneficiaryId() == null || entry.getBeneficiaryId() <= 0) {
+                error = "Valid beneficiary is required";
+            } else if (entry.getQuantity() == null || entry.getQuantity() <= 0) {
+                error = "Quantity must be greater than zero";
+            } else if (!activeBeneficiaries.contains(entry.getBeneficiaryId())) {
+                error = "Beneficiary not found or inactive";
+            } else if (entry.getQuantity() > availableStock - dispatchedQuantity) {
+                error = "Insufficient stock. Available: " + (availableStock - dispatchedQuantity) +
+                        ", Requested: " + entry.getQuantity();
+            } else {
+                // Single deliveries may hold reservations that are not in the table yet
+                try {
+                    stockReservations.completeWithTransaction(
+                            stockReservations.reserve(programId, productDescription, entry.getQuantity()));
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            if (error != null) {
+                results.set(entry.getIndex(), dispatchResult(entry, false, error));
+            } else {
+                accepted.add(entry);
+                dispatchedQuantity += entry.getQuantity();
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            List<Long> deliveryIds = repository.insertDeliveryBatch(programId, productDescription, unitValue,
+                                                                    accepted, createdBy);
+            repository.decrementInventory(((Number) inventory.get("inventory_id")).longValue(), dispatchedQuantity);
+
+            for (int i = 0; i < accepted.size(); i++) {
+                DeliveryBatchEntry entry = accepted.get(i);
+                entry.setDeliveryId(deliveryIds.get(i));
+                results.set(entry.getIndex(), dispatchResult(entry, true, null));
+            }
+            // In-memory views must not count deliveries a rollback removes
+            BigDecimal unit = unitValue != null ? unitValue : BigDecimal.ZERO;
+            afterCommit(() -> {
+                for (DeliveryBatchEntry entry : accepted) {
+                    BigDecimal totalValue = unit.multiply(BigDecimal.valueOf(entry.getQuantity()));
+                    dashboardMetrics.onDeliveryPerformed(entry.getDeliveryId(), totalValue);
+                    areaRollup.onDeliveryPerformed(entry.getBeneficiaryId(), entry.getQuantity(), totalValue);
+                }
+                searchIndex.index(SearchResult.DELIVERY, deliveryIds);
+            });
+            audit.publishInserts(AuditEvent.DELIVERY, deliveryIds, createdBy);
+            dataVersions.bump(DataVersionService.Entity.DELIVERIES, DataVersionService.Entity.DASHBOARD);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("programId", programId);
+        summary.put("productDescription", inventory.get("product_description"));
+        summary.put("availableBefore", availableStock);
+        summary.put("quantityDispatched", dispatchedQuantity);
+        summary.put("availableAfter", availableStock - dispatchedQuantity);
+        summary.put("total", entries.size());
+        summary.put("dispatched", accepted.size());
+        summary.put("rejected", entries.size() - accepted.size());
+        summary.put("results", results);
+        return summary;
+    }
+
+    private Map<String, Object> dispatchResult(DeliveryBatchEntry entry, boolean success, String error) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", entry.getIndex());
+        result.put("beneficiaryId", entry.getBeneficiaryId());
+        result.put("quantity", entry.getQuantity());
+        result.put("success", success);
+        if (success) {
+            result.put("deliveryId", entry.getDeliveryId());
+        } else {
+            result.put("error", error);
+        }
+        return result;
+    }
+
+    /**
+     * Run an action once the surrounding transaction commits (at once outside one)
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,705 @@
+package com.hopecare.service;
+
+import com.hopecare.model.DonationBatchItem;
+import com.hopecare.repository.DatabaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Donation Rollup Service
+ * Keeps donation totals per (program, donation type, currency, donor type)
+ * in day, month and year buckets, so period reports over any date range sum
+ * a few buckets instead of rescanning tbl_donations with currency
+ * conversion like pkg_reports.total_donations_by_period. Built from the
+ * whole history at startup, updated on every donation insert and
+ * reconciled against the tables on a schedule. Day buckets older than
+ * hopecare.donation-rollups.day-retention-days and month buckets older
+ * than month-retention-months are dropped; a range reaching into compacted
+ * history is answered from the enclosing month or year, and the response
+ * reports the range actually covered.
+ */
+@Service
+public class DonationRollupService {
+
+    public static final String PERIOD_DAY = "day";
+    public static final String PERIOD_MONTH = "month";
+    public static final String PERIOD_YEAR = "year";
+    public static final String PERIOD_TOTAL = "total";
+
+    public static final String BY_PROGRAM = "program";
+    public static final String BY_TYPE = "type";
+    public static final String BY_CURRENCY = "currency";
+    public static final String BY_DONOR_TYPE = "donorType";
+
+    private static final List<String> DIMENSIONS = List.of(BY_PROGRAM, BY_TYPE, BY_CURRENCY, BY_DONOR_TYPE);
+
+    private static final Logger log = LoggerFactory.getLogger(DonationRollupService.class);
+
+    private static final Comparator<List<Object>> ROW_ORDER = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            int cmp = Objects.compare(a.get(i), b.get(i), Comparator.nullsLast(DonationRollupService::compareValues));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    };
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Value("${hopecare.donation-rollups.day-retention-days:400}")
+    private int dayRetentionDays;
+
+    @Value("${hopecare.donation-rollups.month-retention-months:60}")
+    private int monthRetentionMonths;
+
+    private final Object reloadMonitor = new Object();
+    private RollupStore store = new RollupStore();          // guarded by this
+    private Map<Long, String> donorTypes = new HashMap<>();    // guarded by this
+    private Map<Long, String> currencyCodes = new HashMap<>(); // guarded by this
+    private List<Contribution> addedDuringReload;             // guarded by this
+    private boolean invalidatedDuringReload;                  // guarded by this
+    private volatile boolean loaded = false;
+
+    /**
+     * Build the buckets once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Donation rollups not built, will load on first read: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the buckets from the tables (catches writes made outside the application)
+     */
+    @Scheduled(initialDelayString = "${hopecare.donation-rollups.reconcile-interval-ms:21600000}",
+               fixedDelayString = "${hopecare.donation-rollups.reconcile-interval-ms:21600000}")
+    public void reconcile() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Donation rollup reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop day and month buckets past their retention
+     */
+    @Scheduled(fixedDelayString = "${hopecare.donation-rollups.compact-interval-ms:3600000}")
+    public synchronized void compact() {
+        store.compact(LocalDate.now().minusDays(dayRetentionDays),
+                      LocalDate.now().withDayOfMonth(1).minusMonths(monthRetentionMonths));
+    }
+
+    /**
+     * Get donation totals between two dates (inclusive, yyyy-MM-dd)
+     * period is day, month (default), year or total; groupBy is a comma
+     * separated list of program, type (default), currency and donorType.
+     * The amount in the original currency is only returned when grouping
+     * by currency.
+     */
+    public Map<String, Object> getRollups(String from, String to, String period, String groupBy,
+                                          Long programId, String donationType, String donorType) {
+        LocalDate fromDate = parseDate(from, "from");
+        LocalDate toDate = parseDate(to, "to");
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        String rollupPeriod = period == null || period.trim().isEmpty()
+                ? PERIOD_MONTH : period.trim().toLowerCase(Locale.ROOT);
+        Level periodLevel = toLevel(rollupPeriod);
+        List<String> dimensions = parseGroupBy(groupBy);
+        String typeFilter = normalize(donationType);
+        String donorTypeFilter = normalize(donorType);
+        if (!loaded) {
+            reload();
+        }
+
+        // Each period window is decomposed into the coarsest buckets it covers
+        List<LocalDate[]> windows = new ArrayList<>();
+        if (periodLevel == null) {
+            windows.add(new LocalDate[]{fromDate, toDate});
+        } else {
+            for (LocalDate start = periodLevel.start(fromDate); !start.isAfter(toDate); start = periodLevel.next(start)) {
+                windows.add(new LocalDate[]{max(start, fromDate), min(periodLevel.end(start), toDate)});
+            }
+        }
+
+        Map<List<Object>, RollupTotals> selected = new HashMap<>();
+        Set<Bucket> used = new HashSet<>();
+        LocalDate effectiveFrom = fromDate;
+        LocalDate effectiveTo = toDate;
+        Map<Long, String> codes;
+        synchronized (this) {
+            codes = currencyCodes;
+            for (LocalDate[] window : windows) {
+                for (Bucket bucket : store.plan(window[0], window[1])) {
+                    if (!used.add(bucket)) {
+                        continue; // a compacted bucket already counted for an earlier window
+                    }
+                    effectiveFrom = min(effectiveFrom, bucket.start);
+                    effectiveTo = max(effectiveTo, bucket.level.end(bucket.start));
+                    String label = periodLevel == null ? null
+                            : bucket.level.compareTo(periodLevel) > 0 ? bucket.level.label(bucket.start)
+                            : periodLevel.label(periodLevel.start(window[0]));
+                    Map<RollupKey, RollupTotals> totals = store.get(bucket);
+                    if (totals == null) {
+                        continue;
+                    }
+                    totals.forEach((key, value) -> {
+                        if ((programId != null && !programId.equals(key.programId))
+                                || (typeFilter != null && !typeFilter.equals(key.typeCode))
+                                || (donorTypeFilter != null && !donorTypeFilter.equals(key.donorType))) {
+                            return;
+                        }
+                        selected.computeIfAbsent(rowKey(label, key, dimensions), k -> new RollupTotals()).add(value);
+                    });
+                }
+            }
+        }
+
+        List<List<Object>> keys = new ArrayList<>(selected.keySet());
+        keys.sort(ROW_ORDER);
+        List<Map<String, Object>> rows = new ArrayList<>(keys.size());
+        for (List<Object> key : keys) {
+            RollupTotals totals = selected.get(key);
+            Map<String, Object> row = new LinkedHashMap<>();
+            if (periodLevel != null) {
+                row.put("period", key.get(0));
+            }
+            for (int i = 0; i < dimensions.size(); i++) {
+                Object value = key.get(i + 1);
+                switch (dimensions.get(i)) {
+                    case BY_PROGRAM:
+                        row.put("programId", value);
+                        break;
+                    case BY_TYPE:
+                        row.put("donationType", value);
+                        break;
+                    case BY_CURRENCY:
+                        row.put("currency", value != null ? codes.getOrDefault(value, value.toString()) : null);
+                        break;
+                    default:
+                        row.put("donorType", value);
+                }
+            }
+            row.put("totalDonations", totals.donations);
+            if (dimensions.contains(BY_CURRENCY)) {
+                row.put("amount", totals.amount);
+            }
+            row.put("quantity", totals.quantity);
+            row.put("totalValuePen", totals.valuePen);
+            rows.add(row);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", fromDate.toString());
+        result.put("to", toDate.toString());
+        result.put("effectiveFrom", effectiveFrom.toString());
+        result.put("effectiveTo", effectiveTo.toString());
+        result.put("period", rollupPeriod);
+        result.put("groupBy", dimensions);
+        result.put("buckets", used.size());
+        result.put("rows", rows);
+        return result;
+    }
+
+    /**
+     * Money donation written (converted to PEN at today's rate, as in the dashboard)
+     */
+    public void onMoneyDonation(Long donationId, Long donorId, Long programId, BigDecimal amount, Long currencyId) {
+        BigDecimal valuePen;
+        try {
+            valuePen = currencyService.toBase(amount, currencyId, LocalDate.now());
+        } catch (Exception e) {
+            invalidate();
+            return;
+        }
+        add(donationId, donorId, programId, DonationBatchItem.MONEY, currencyId, amount, 0, valuePen);
+    }
+
+    /**
+     * Product donation written (value already in PEN)
+     */
+    public void onProductDonation(Long donationId, Long donorId, Long programId, int quantity, BigDecimal value) {
+        add(donationId, donorId, programId, DonationBatchItem.PRODUCT, null, null, quantity, value);
+    }
+
+    /**
+     * Donor registered (updates never change the donor type)
+     */
+    public synchronized void onDonorRegistered(Long donorId, String donorType) {
+        if (donorId != null && donorType != null) {
+            donorTypes.put(donorId, donorType.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Force the next read to reload from the tables
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        if (addedDuringReload != null) {
+            invalidatedDuringReload = true;
+        }
+    }
+
+    private synchronized void add(Long donationId, Long donorId, Long programId, String typeCode, Long currencyId,
+                                  BigDecimal amount, int quantity, BigDecimal valuePen) {
+        if (donationId == null || (!loaded && addedDuringReload == null)) {
+            return;
+        }
+        String donorType = donorTypes.get(donorId);
+        if (donorType == null) {
+            // Donor created outside the application
+            invalidate();
+            return;
+        }
+        RollupTotals totals = new RollupTotals();
+        totals.donations = 1;
+        totals.amount = amount != null ? amount : BigDecimal.ZERO;
+        totals.quantity = quantity;
+        totals.valuePen = valuePen != null ? valuePen : BigDecimal.ZERO;
+        Contribution contribution = new Contribution(donationId, LocalDate.now(),
+                new RollupKey(programId, typeCode, currencyId, donorType), totals);
+        if (addedDuringReload != null) {
+            addedDuringReload.add(contribution);
+        }
+        if (loaded) {
+            store.add(contribution.day, contribution.key, totals);
+        }
+    }
+
+    /**
+     * Rebuild all buckets; donations added meanwhile and not seen by the query are re-applied
+     * (checked by id in the query's snapshot: batch ids come from pre-fetched
+     * sequence blocks, so they do not follow commit order)
+     */
+    private void reload() {
+        synchronized (reloadMonitor) {
+            List<Contribution> added = new ArrayList<>();
+            synchronized (this) {
+                addedDuringReload = added;
+                invalidatedDuringReload = false;
+            }
+
+            Map<Long, String> freshDonorTypes = new HashMap<>();
+            Map<Long, String> freshCodes = new HashMap<>();
+            RollupStore fresh = new RollupStore();
+            Set<Long> counted;
+            try {
+                repository.streamDonorTypes(row -> {
+                    if (row.get("donor_type") != null) {
+                        freshDonorTypes.put(((Number) row.get("donor_id")).longValue(), (String) row.get("donor_type"));
+                    }
+                });
+                for (Map<String, Object> row : repository.getAllCurrencies()) {
+                    freshCodes.put(((Number) row.get("currency_id")).longValue(), (String) row.get("currency_code"));
+                }
+                counted = repository.streamDonationRollupSource(row -> {
+                    LocalDate day = toLocalDate(row.get("donation_day"));
+                    Long currencyId = toLong(row.get("currency_id"));
+                    String typeCode = (String) row.get("type_code");
+                    RollupTotals totals = new RollupTotals();
+                    totals.donations = ((Number) row.get("donations")).longValue();
+                    if (DonationBatchItem.MONEY.equals(typeCode)) {
+                        // Converted per donation, like onMoneyDonation
+                        totals.amount = toDecimal(row.get("total_amount"));
+                        totals.valuePen = currencyService.toBase(toDecimal(row.get("amount")), currencyId, day)
+                                .multiply(BigDecimal.valueOf(totals.donations));
+                    } else {
+                        totals.quantity = row.get("total_quantity") != null
+                                ? ((Number) row.get("total_quantity")).longValue() : 0;
+                        totals.valuePen = toDecimal(row.get("product_value"));
+                    }
+                    fresh.add(day, new RollupKey(toLong(row.get("program_id")), typeCode, currencyId,
+                                                 (String) row.get("donor_type")), totals);
+                }, () -> {
+                    synchronized (this) {
+                        return added.stream().map(contribution -> contribution.donationId).toList();
+                    }
+                });
+            } finally {
+                synchronized (this) {
+                    addedDuringReload = null;
+                }
+            }
+
+            synchronized (this) {
+                for (Contribution contribution : added) {
+                    if (!counted.contains(contribution.donationId)) {
+                        fresh.add(contribution.day, contribution.key, contribution.totals);
+                    }
+                }
+                freshDonorTypes.putAll(donorTypesSavedDuring(freshDonorTypes));
+                store = fresh;
+                donorTypes = freshDonorTypes;
+                currencyCodes = freshCodes;
+                loaded = !invalidatedDuringReload;
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Donors registered after the donor type query ran (caller holds the lock)
+     */
+    private Map<Long, String> donorTypesSavedDuring(Map<Long, String> freshDonorTypes) {
+        Map<Long, String> missing = new HashMap<>();
+        donorTypes.forEach((donorId, type) -> {
+            if (!freshDonorTypes.containsKey(donorId)) {
+                missing.put(donorId, type);
+            }
+        });
+        return missing;
+    }
+
+    private List<Object> rowKey(String label, RollupKey key, List<String> dimensions) {
+        List<Object> rowKey = new ArrayList<>(dimensions.size() + 1);
+        rowKey.add(label);
+        for (String dimension : dimensions) {
+            switch (dimension) {
+                case BY_PROGRAM:
+                    rowKey.add(key.programId);
+                    break;
+                case BY_TYPE:
+                    rowKey.add(key.typeCode);
+                    break;
+                case BY_CURRENCY:
+                    rowKey.add(key.currencyId);
+                    break;
+                default:
+                    rowKey.add(key.donorType);
+            }
+        }
+        return rowKey;
+    }
+
+    private static int compareValues(Object a, Object b) {
+        if (a instanceof Long && b instanceof Long) {
+            return ((Long) a).compareTo((Long) b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    private Level toLevel(String period) {
+        switch (period) {
+            case PERIOD_DAY:
+                return Level.DAY;
+            case PERIOD_MONTH:
+                return Level.MONTH;
+            case PERIOD_YEAR:
+                return Level.YEAR;
+            case PERIOD_TOTAL:
+                return null;
+            default:
+                throw new IllegalArgumentException("Period must be day, month, year or total");
+        }
+    }
+
+    private List<String> parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.trim().isEmpty()) {
+            return List.of(BY_TYPE);
+        }
+        List<String> dimensions = new ArrayList<>();
+        for (String part : groupBy.split(",")) {
+            String dimension = DIMENSIONS.stream()
+                    .filter(candidate -> candidate.equalsIgnoreCase(part.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "groupBy accepts " + String.join(", ", DIMENSIONS)));
+            if (!dimensions.contains(dimension)) {
+                dimensions.add(dimension);
+            }
+        }
+        return dimensions;
+    }
+
+    private LocalDate parseDate(String value, String name) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " date is required");
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Oracle DATE columns come back as Timestamp from queryForList
+     */
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    /**
+     * Bucket granularity, finest first
+     */
+    private enum Level {
+        DAY, MONTH, YEAR;
+
+        LocalDate start(LocalDate day) {
+            switch (this) {
+                case DAY:
+                    return day;
+                case MONTH:
+                    return day.withDayOfMonth(1);
+                default:
+                    return day.withDayOfYear(1);
+            }
+        }
+
+        LocalDate next(LocalDate start) {
+            switch (this) {
+                case DAY:
+                    return start.plusDays(1);
+                case MONTH:
+                    return start.plusMonths(1);
+                default:
+                    return start.plusYears(1);
+            }
+        }
+
+        LocalDate end(LocalDate start) {
+            return next(start).minusDays(1);
+        }
+
+        String label(LocalDate start) {
+            switch (this) {
+                case DAY:
+                    return start.toString();
+                case MONTH:
+                    return YearMonth.from(start).toString();
+                default:
+                    return String.valueOf(start.getYear());
+            }
+        }
+    }
+
+    /**
+     * One bucket: level and first day
+     */
+    private static final class Bucket {
+        private final Level level;
+        private final LocalDate start;
+
+        Bucket(Level level, LocalDate start) {
+            this.level = level;
+            this.start = start;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Bucket)) return false;
+            Bucket other = (Bucket) o;
+            return level == other.level && start.equals(other.start);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(level, start);
+        }
+    }
+
+    /**
+     * Day, month and year buckets; every donation is added to all three
+     * levels, compaction only drops the finer ones past their horizon
+     */
+    private static class RollupStore {
+        private final Map<Level, NavigableMap<LocalDate, Map<RollupKey, RollupTotals>>> levels = new EnumMap<>(Level.class);
+        private final Map<Level, LocalDate> horizons = new EnumMap<>(Level.class); // first start still kept
+
+        RollupStore() {
+            for (Level level : Level.values()) {
+                levels.put(level, new TreeMap<>());
+            }
+        }
+
+        void add(LocalDate day, RollupKey key, RollupTotals totals) {
+            for (Level level : Level.values()) {
+                LocalDate start = level.start(day);
+                if (isKept(level, start)) {
+                    levels.get(level).computeIfAbsent(start, k -> new HashMap<>())
+                          .computeIfAbsent(key, k -> new RollupTotals()).add(totals);
+                }
+            }
+        }
+
+        Map<RollupKey, RollupTotals> get(Bucket bucket) {
+            return levels.get(bucket.level).get(bucket.start);
+        }
+
+        void compact(LocalDate dayHorizon, LocalDate monthHorizon) {
+            horizons.merge(Level.DAY, dayHorizon, DonationRollupService::max);
+            horizons.merge(Level.MONTH, monthHorizon, DonationRollupService::max);
+            levels.get(Level.DAY).headMap(horizons.get(Level.DAY)).clear();
+            levels.get(Level.MONTH).headMap(horizons.get(Level.MONTH)).clear();
+        }
+
+        /**
+         * Coarsest buckets that cover [from, to]: whole years, then whole
+         * months, then days; a day or month already compacted is replaced
+         * by the month or year containing it
+         */
+        List<Bucket> plan(LocalDate from, LocalDate to) {
+            List<Bucket> plan = new ArrayList<>();
+            LocalDate day = from;
+            while (!day.isAfter(to)) {
+                Level chosen = null;
+                for (Level level : Arrays.asList(Level.YEAR, Level.MONTH, Level.DAY)) {
+                    if (level.start(day).equals(day) && !level.end(day).isAfter(to) && isKept(level, day)) {
+                        chosen = level;
+                        break;
+                    }
+                }
+                if (chosen == null) {
+                    for (Level level : Level.values()) {
+                        if (isKept(level, level.start(day))) {
+                            chosen = level;
+                            break;
+                        }
+                    }
+                }
+                LocalDate start = chosen.start(day);
+                plan.add(new Bucket(chosen, start));
+                day = chosen.next(start);
+            }
+            return plan;
+        }
+
+        private boolean isKept(Level level, LocalDate start) {
+            LocalDate horizon = horizons.get(level);
+            return horizon == null || !start.isBefore(horizon);
+        }
+    }
+
+    /**
+     * Program, donation type, currency and donor type (any may be null)
+     */
+    private static final class RollupKey {
+        private final Long programId;
+        private final String typeCode;
+        private final Long currencyId;
+        private final String donorType;
+
+        RollupKey(Long programId, String typeCode, Long currencyId, String donorType) {
+            this.programId = programId;
+            this.typeCode = typeCode;
+            this.currencyId = currencyId;
+            this.donorType = donorType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey other = (RollupKey) o;
+            return Objects.equals(programId, other.programId) && Objects.equals(typeCode, other.typeCode)
+                    && Objects.equals(currencyId, other.currencyId) && Objects.equals(donorType, other.donorType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(programId, typeCode, currencyId, donorType);
+        }
+    }
+
+    /**
+     * Totals of one bucket and key; amount is in the donation currency
+     */
+    private static class RollupTotals {
+        private long donations;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private long quantity;
+        private BigDecimal valuePen = BigDecimal.ZERO;
+
+        void add(RollupTotals other) {
+            donations += other.donations;
+            amount = amount.add(other.amount);
+            quantity += other.quantity;
+            valuePen = valuePen.add(other.valuePen);
+        }
+    }
+
+    /**
+     * A donation added while the buckets were being rebuilt
+     */
+    private static final class Contribution {
+        private final long donationId;
+        private final LocalDate day;
+        private final RollupKey key;
+        private final RollupTotals totals;
+
+        Contribution(long donationId, LocalDate day, RollupKey key, RollupTotals totals) {
+            this.donationId = donationId;
+            this.day = day;
+            this.key = key;
+            this.totals = totals;
+        }
+    }
+}
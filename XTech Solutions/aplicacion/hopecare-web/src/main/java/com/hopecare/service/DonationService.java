@@ -1,12 +1,29 @@
 package com.hopecare.service;
 
+import com.hopecare.config.ReadOnly;
+import com.hopecare.model.AuditEvent;
 import com.hopecare.model.Donation;
+import com.hopecare.model.DonationBatchItem;
+import com.hopecare.model.PageResult;
+import com.hopecare.model.SearchResult;
 import com.hopecare.repository.DatabaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Donation Service
@@ -15,21 +32,72 @@ import java.util.Map;
 @Service
 public class DonationService {
 
+    private static final Logger log = LoggerFactory.getLogger(DonationService.class);
+
     @Autowired
     private DatabaseRepository repository;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private StockReservationService stockReservations;
+
+    @Autowired
+    private AuditService audit;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private ReferenceDataCache referenceData;
+
+    @Autowired
+    private DonationRollupService donationRollups;
+
+    @Autowired
+    private DonorLeaderboardService leaderboard;
+
+    @Value("${hopecare.donations.batch-chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${hopecare.donations.batch-max-items:10000}")
+    private int batchMaxItems;
+
     /**
      * Get all donations
      */
+    @ReadOnly
     public List<Donation> getAllDonations() {
         return repository.getAllDonations();
     }
 
     /**
-     * Get available currencies
+     * Get one page of donations (cursor from the previous page, null for the first)
+     */
+    @ReadOnly
+    public PageResult<Donation> getDonationsPage(String cursor, Integer size) {
+        return repository.getDonationsPage(cursor, size);
+    }
+
+    /**
+     * Get available currencies (cached reference data)
      */
     public List<Map<String, Object>> getCurrencies() {
-        return repository.getCurrencies();
+        return referenceData.getCurrencies();
+    }
+
+    /**
+     * Get donation types (cached reference data)
+     */
+    public List<Map<String, Object>> getDonationTypes() {
+        return referenceData.getDonationTypes();
     }
 
     /**
@@ -37,7 +105,196 @@ public class DonationService {
      */
     public Long registerMoneyDonation(Long donorId, Double amount, Long currencyId,
                                       Long programId, String notes, Long createdBy) {
-        // Validate inputs
+        validateMoneyDonation(donorId, amount, currencyId, programId);
+        if (createdBy == null || createdBy <= 0) {
+            createdBy = 1L; // Default to admin user
+        }
+
+        Long donationId = repository.registerMoneyDonation(donorId, amount, currencyId,
+                                                           programId, notes, createdBy);
+        BigDecimal valuePen = null;
+        try {
+            valuePen = currencyService.toBase(BigDecimal.valueOf(amount), currencyId, LocalDate.now());
+            dashboardMetrics.onDonationRegistered(donationId, valuePen);
+        } catch (Exception e) {
+            dashboardMetrics.invalidate();
+        }
+        leaderboard.onDonation(donorId, valuePen);
+        donationRollups.onMoneyDonation(donationId, donorId, programId, BigDecimal.valueOf(amount), currencyId);
+        searchIndex.index(SearchResult.DONATION, donationId);
+        audit.publishInsert(AuditEvent.DONATION, donationId, createdBy);
+        dataVersions.bump(DataVersionService.Entity.DONATIONS, DataVersionService.Entity.DASHBOARD);
+        return donationId;
+    }
+
+    /**
+     * Register product donation
+     */
+    public Long registerProductDonation(Long donorId, String productDescription,
+                                        Integer quantity, Double unitValue,
+                                        Long programId, String notes, Long createdBy) {
+        validateProductDonation(donorId, productDescription, quantity, programId);
+        if (createdBy == null || createdBy <= 0) {
+            createdBy = 1L; // Default to admin user
+        }
+
+        Long donationId = repository.registerProductDonation(donorId, productDescription,
+                                                             quantity, unitValue, programId,
+                                                             notes, createdBy);
+        BigDecimal value = BigDecimal.valueOf(quantity).multiply(BigDecimal.valueOf(unitValue != null ? unitValue : 0.0));
+        dashboardMetrics.onDonationRegistered(donationId, value);
+        donationRollups.onProductDonation(donationId, donorId, programId, quantity, value);
+        leaderboard.onDonation(donorId, value);
+        stockReservations.onStockAdded(programId, productDescription, quantity);
+        searchIndex.index(SearchResult.DONATION, donationId);
+        audit.publishInsert(AuditEvent.DONATION, donationId, createdBy);
+        dataVersions.bump(DataVersionService.Entity.DONATIONS, DataVersionService.Entity.DASHBOARD);
+        return donationId;
+    }
+
+    /**
+     * Register a batch of money and product donations
+     * Items are validated with the same rules as the single-item path and
+     * written in chunks, each chunk as JDBC batches in one transaction. If a
+     * chunk fails in the database its items are retried one by one through
+     * the PL/SQL packages. Returns one result per item, in request order.
+     */
+    public List<Map<String, Object>> registerDonationBatch(List<Map<String, Object>> requests, Long createdBy) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one donation is required");
+        }
+        if (requests.size() > batchMaxItems) {
+            throw new IllegalArgumentException("A batch can contain at most " + batchMaxItems + " donations");
+        }
+        if (createdBy == null || createdBy <= 0) {
+            createdBy = 1L; // Default to admin user
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<DonationBatchItem> valid = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                DonationBatchItem item = toBatchItem(i, requests.get(i), createdBy);
+                if (item.isMoney()) {
+                    validateMoneyDonation(item.getDonorId(), item.getAmount(), item.getCurrencyId(), item.getProgramId());
+                } else {
+                    validateProductDonation(item.getDonorId(), item.getProductDescription(),
+                                            item.getQuantity(), item.getProgramId());
+                }
+                valid.add(item);
+            } catch (IllegalArgumentException e) {
+                results.set(i, batchFailure(i, e.getMessage()));
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += batchChunkSize) {
+            registerBatchChunk(valid.subList(from, Math.min(from + batchChunkSize, valid.size())), results);
+        }
+        return results;
+    }
+
+    private void registerBatchChunk(List<DonationBatchItem> chunk, List<Map<String, Object>> results) {
+        Set<Long> activeDonors = repository.getActiveDonorIds(
+                chunk.stream().map(DonationBatchItem::getDonorId).collect(Collectors.toList()));
+        Set<Long> activePrograms = repository.getActiveProgramIds(
+                chunk.stream().map(DonationBatchItem::getProgramId).collect(Collectors.toList()));
+
+        List<DonationBatchItem> ready = new ArrayList<>(chunk.size());
+        for (DonationBatchItem item : chunk) {
+            if (!activeDonors.contains(item.getDonorId())) {
+                results.set(item.getIndex(), batchFailure(item.getIndex(), "Donor not found or inactive"));
+            } else if (!activePrograms.contains(item.getProgramId())) {
+                results.set(item.getIndex(), batchFailure(item.getIndex(), "Program not found or inactive"));
+            } else {
+                try {
+                    item.setValuePen(item.isMoney()
+                            ? currencyService.toBase(BigDecimal.valueOf(item.getAmount()), item.getCurrencyId(), LocalDate.now())
+                            : BigDecimal.valueOf(item.getQuantity())
+                                        .multiply(BigDecimal.valueOf(item.getUnitValue() != null ? item.getUnitValue() : 0.0)));
+                    ready.add(item);
+                } catch (IllegalArgumentException e) {
+                    results.set(item.getIndex(), batchFailure(item.getIndex(), e.getMessage()));
+                }
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        List<Long> donationIds;
+        try {
+            donationIds = repository.insertDonationBatch(ready);
+        } catch (DataAccessException e) {
+            log.warn("Donation batch of {} failed, retrying one by one: {}", ready.size(), e.getMessage());
+            for (DonationBatchItem item : ready) {
+                try {
+                    Long donationId = item.isMoney()
+                            ? registerMoneyDonation(item.getDonorId(), item.getAmount(), item.getCurrencyId(),
+                                                    item.getProgramId(), item.getNotes(), item.getCreatedBy())
+                            : registerProductDonation(item.getDonorId(), item.getProductDescription(),
+                                                      item.getQuantity(), item.getUnitValue(), item.getProgramId(),
+                                                      item.getNotes(), item.getCreatedBy());
+                    results.set(item.getIndex(), batchSuccess(item.getIndex(), donationId));
+                } catch (RuntimeException ex) {
+                    results.set(item.getIndex(), batchFailure(item.getIndex(), ex.getMessage()));
+                }
+            }
+            return;
+        }
+
+        for (int i = 0; i < ready.size(); i++) {
+            DonationBatchItem item = ready.get(i);
+            item.setDonationId(donationIds.get(i));
+            results.set(item.getIndex(), batchSuccess(item.getIndex(), item.getDonationId()));
+            dashboardMetrics.onDonationRegistered(item.getDonationId(), item.getValuePen());
+            leaderboard.onDonation(item.getDonorId(), item.getValuePen());
+            if (item.isMoney()) {
+                donationRollups.onMoneyDonation(item.getDonationId(), item.getDonorId(), item.getProgramId(),
+                                                BigDecimal.valueOf(item.getAmount()), item.getCurrencyId());
+            } else {
+                donationRollups.onProductDonation(item.getDonationId(), item.getDonorId(), item.getProgramId(),
+                                                  item.getQuantity(), item.getValuePen());
+                stockReservations.onStockAdded(item.getProgramId(), item.getProductDescription(), item.getQuantity());
+            }
+        }
+        searchIndex.index(SearchResult.DONATION, donationIds);
+        audit.publishInserts(AuditEvent.DONATION, donationIds, null); // changed_by from each row
+        dataVersions.bump(DataVersionService.Entity.DONATIONS, DataVersionService.Entity.DASHBOARD);
+    }
+
+    /**
+     * Read one batch entry; "type" is MONEY or PRODUCT, inferred when absent
+     */
+    private DonationBatchItem toBatchItem(int index, Map<String, Object> request, Long createdBy) {
+        if (request == null) {
+            throw new IllegalArgumentException("Donation is required");
+        }
+        String type = request.get("type") != null
+                ? request.get("type").toString().trim().toUpperCase(Locale.ROOT)
+                : (request.get("productDescription") != null ? DonationBatchItem.PRODUCT : DonationBatchItem.MONEY);
+        if (!DonationBatchItem.MONEY.equals(type) && !DonationBatchItem.PRODUCT.equals(type)) {
+            throw new IllegalArgumentException("Donation type must be MONEY or PRODUCT");
+        }
+
+        DonationBatchItem item = new DonationBatchItem(index, type);
+        item.setDonorId(toLong(request.get("donorId")));
+        item.setProgramId(toLong(request.get("programId")));
+        item.setNotes(request.get("notes") != null ? request.get("notes").toString() : "");
+        item.setCreatedBy(createdBy);
+        if (item.isMoney()) {
+            item.setAmount(toDouble(request.get("amount")));
+            item.setCurrencyId(toLong(request.get("currencyId")));
+        } else {
+            item.setProductDescription(request.get("productDescription") != null
+                    ? request.get("productDescription").toString() : null);
+            item.setQuantity(request.get("quantity") != null ? Integer.valueOf(request.get("quantity").toString()) : null);
+            Double unitValue = toDouble(request.get("unitValue"));
+            item.setUnitValue(unitValue != null ? unitValue : 0.0);
+        }
+        return item;
+    }
+
+    private void validateMoneyDonation(Long donorId, Double amount, Long currencyId, Long programId) {
         if (donorId == null || donorId <= 0) {
             throw new IllegalArgumentException("Valid donor is required");
         }
@@ -50,21 +307,9 @@ public class DonationService {
         if (programId == null || programId <= 0) {
             throw new IllegalArgumentException("Program is required");
         }
-        if (createdBy == null || createdBy <= 0) {
-            createdBy = 1L; // Default to admin user
-        }
-
-        return repository.registerMoneyDonation(donorId, amount, currencyId, 
-                                                programId, notes, createdBy);
     }
 
-    /**
-     * Register product donation
-     */
-    public Long registerProductDonation(Long donorId, String productDescription,
-                                        Integer quantity, Double unitValue,
-                                        Long programId, String notes, Long createdBy) {
-        // Validate inputs
+    private void validateProductDonation(Long donorId, String productDescription, Integer quantity, Long programId) {
         if (donorId == null || donorId <= 0) {
             throw new IllegalArgumentException("Valid donor is required");
         }
@@ -77,12 +322,29 @@ public class DonationService {
         if (programId == null || programId <= 0) {
             throw new IllegalArgumentException("Program is required");
         }
-        if (createdBy == null || createdBy <= 0) {
-            createdBy = 1L; // Default to admin user
-        }
+    }
+
+    private Long toLong(Object value) {
+        return value != null ? Long.valueOf(value.toString()) : null;
+    }
+
+    private Double toDouble(Object value) {
+        return value != null ? Double.valueOf(value.toString()) : null;
+    }
+
+    private Map<String, Object> batchSuccess(int index, Long donationId) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("success", true);
+        result.put("donationId", donationId);
+        return result;
+    }
 
-        return repository.registerProductDonation(donorId, productDescription, 
-                                                  quantity, unitValue, programId, 
-                                                  notes, createdBy);
+    private Map<String, Object> batchFailure(int index, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("index", index);
+        result.put("success", false);
+        result.put("error", message);
+        return result;
     }
-}
\ No newline at end of file
+}
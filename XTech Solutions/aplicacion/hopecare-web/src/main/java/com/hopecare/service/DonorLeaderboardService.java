@@ -0,0 +1,444 @@
+package com.hopecare.service;
+
+import com.hopecare.model.Donor;
+import com.hopecare.model.DonationBatchItem;
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Donor Leaderboard Service
+ * Keeps every donor's donation count and total value in PEN in memory,
+ * ranked overall and per donor_type, so top-N queries read the first N
+ * entries instead of aggregating all donations like pkg_reports.top_donors.
+ * Built at startup, updated by the services on every donation, and
+ * periodically verified against the tables: standings that drifted are
+ * corrected and counted as hopecare.leaderboard.mismatches. Also the
+ * source of every donor's total value in PEN shown outside the rankings
+ * (vw_donor_summary no longer converts currencies).
+ */
+@Service
+public class DonorLeaderboardService {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    public static final String METRIC_NAME = "hopecare.leaderboard";
+
+    private static final String ALL = "ALL";
+
+    // Highest value first, ties by donor ID so the order is stable
+    private static final Comparator<Standing> RANKING = Comparator
+            .comparingLong((Standing standing) -> standing.valueMinor).reversed()
+            .thenComparingLong(standing -> standing.donorId);
+
+    private static final Logger log = LoggerFactory.getLogger(DonorLeaderboardService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.leaderboard.max-limit:100}")
+    private int maxLimit;
+
+    private final Object reloadMonitor = new Object();
+    private Map<Long, Standing> standings = new HashMap<>();               // guarded by this
+    private Map<String, NavigableSet<Standing>> rankings = new HashMap<>(); // guarded by this
+    private Set<Long> touchedDuringReload;                                 // guarded by this
+    private volatile boolean loaded = false;
+
+    private Counter mismatches;
+
+    @PostConstruct
+    public void init() {
+        mismatches = Counter.builder(METRIC_NAME + ".mismatches")
+                .description("Donor standings corrected by verification against the tables")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build the leaderboard once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reload(false);
+        } catch (Exception e) {
+            log.warn("Donor leaderboard not built, will load on first read: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute all standings from the tables and correct the ones that drifted
+     */
+    @Scheduled(initialDelayString = "${hopecare.leaderboard.verify-interval-ms:900000}",
+               fixedDelayString = "${hopecare.leaderboard.verify-interval-ms:900000}")
+    public void verify() {
+        try {
+            reload(true);
+        } catch (Exception e) {
+            log.warn("Donor leaderboard verification failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the active donors with the highest donated value, optionally of one donor type
+     */
+    public List<Donor> getTopDonors(Integer limit, String donorType) {
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        String segment = donorType == null || donorType.trim().isEmpty()
+                ? ALL : donorType.trim().toUpperCase(Locale.ROOT);
+        if (!loaded) {
+            reload(false);
+        }
+
+        List<Standing> top = new ArrayList<>(size);
+        synchronized (this) {
+            NavigableSet<Standing> ranking = rankings.get(segment);
+            if (ranking != null) {
+                for (Standing standing : ranking) {
+                    if (top.size() == size) {
+                        break;
+                    }
+                    top.add(standing);
+                }
+            }
+        }
+
+        List<Donor> donors = new ArrayList<>(top.size());
+        for (Standing standing : top) {
+            Donor donor = new Donor();
+            donor.setDonorId(standing.donorId);
+            donor.setDonorCode(standing.donorCode);
+            donor.setFullName(standing.fullName);
+            donor.setEmail(standing.email);
+            donor.setDonorType(standing.donorType);
+            donor.setIsActive("Y");
+            donor.setTotalDonations((int) standing.donations);
+            donor.setTotalValuePen(BigDecimal.valueOf(standing.valueMinor, 2).doubleValue());
+            donor.setLastDonationDate(standing.lastDonation);
+            donors.add(donor);
+        }
+        return donors;
+    }
+
+    /**
+     * Set the total value in PEN of each donor from its standing
+     * Left unset when the standings cannot be loaded.
+     */
+    public void fillTotalValues(Collection<Donor> donors) {
+        if (!loaded) {
+            try {
+                reload(false);
+            } catch (Exception e) {
+                log.warn("Donor leaderboard not loaded, donor values omitted: {}", e.getMessage());
+                return;
+            }
+        }
+        synchronized (this) {
+            for (Donor donor : donors) {
+                Standing standing = donor.getDonorId() != null ? standings.get(donor.getDonorId()) : null;
+                donor.setTotalValuePen(standing != null ? BigDecimal.valueOf(standing.valueMinor, 2).doubleValue() : null);
+            }
+        }
+    }
+
+    /**
+     * Donor registered (its code is generated by the database, so it is read back)
+     */
+    public void onDonorRegistered(Long donorId) {
+        if (donorId == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            markTouched(donorId);
+        }
+        refresh(Collections.singletonList(donorId));
+    }
+
+    /**
+     * Donor updated (name and email; the type and totals do not change)
+     */
+    public synchronized void onDonorUpdated(Donor donor) {
+        if (!loaded || donor.getDonorId() == null) {
+            return;
+        }
+        markTouched(donor.getDonorId());
+        Standing standing = standings.get(donor.getDonorId());
+        if (standing != null) {
+            Standing updated = standing.copy();
+            updated.fullName = donor.getFullName();
+            updated.email = donor.getEmail();
+            replace(donor.getDonorId(), updated);
+        }
+    }
+
+    /**
+     * Donation written (a null value re-reads the donor's totals)
+     */
+    public void onDonation(Long donorId, BigDecimal valuePen) {
+        if (donorId == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+            markTouched(donorId);
+            Standing standing = standings.get(donorId);
+            if (standing != null && valuePen != null) {
+                Standing updated = standing.copy();
+                updated.donations++;
+                updated.valueMinor += toMinorUnits(valuePen);
+                updated.lastDonation = LocalDateTime.now();
+                replace(donorId, updated);
+                return;
+            }
+        }
+        refresh(Collections.singletonList(donorId));
+    }
+
+    /**
+     * Force the next read to reload from the tables
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Re-read specific donors and swap their standings
+     */
+    private void refresh(Collection<Long> donorIds) {
+        try {
+            Map<Long, Standing> fresh = new HashMap<>();
+            repository.getDonorStandings(donorIds).forEach(row -> accumulate(fresh, row));
+            synchronized (this) {
+                for (Long donorId : new HashSet<>(donorIds)) {
+                    replace(donorId, fresh.get(donorId));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Donor leaderboard refresh of {} failed: {}", donorIds, e.getMessage());
+            invalidate();
+        }
+    }
+
+    /**
+     * Rebuild all standings from the tables; donors written meanwhile are
+     * re-read afterwards. When verifying, every other donor whose count or
+     * value differs from the tables is counted as a mismatch.
+     */
+    private void reload(boolean verifying) {
+        synchronized (reloadMonitor) {
+            Set<Long> touched = new HashSet<>();
+            synchronized (this) {
+                touchedDuringReload = touched;
+            }
+
+            Map<Long, Standing> fresh = new HashMap<>();
+            try {
+                repository.streamDonorStandings(row -> accumulate(fresh, row));
+            } finally {
+                synchronized (this) {
+                    touchedDuringReload = null;
+                }
+            }
+
+            int corrected = 0;
+            synchronized (this) {
+                if (verifying && loaded) {
+                    Set<Long> donorIds = new HashSet<>(standings.keySet());
+                    donorIds.addAll(fresh.keySet());
+                    donorIds.removeAll(touched);
+                    for (Long donorId : donorIds) {
+                        if (!sameTotals(standings.get(donorId), fresh.get(donorId))) {
+                            corrected++;
+                        }
+                    }
+                }
+                standings = fresh;
+                rankings = new HashMap<>();
+                fresh.values().forEach(this::rank);
+                loaded = true;
+            }
+            if (corrected > 0) {
+                mismatches.increment(corrected);
+                log.warn("Donor leaderboard differed from the tables for {} donors, corrected", corrected);
+            }
+            if (!touched.isEmpty()) {
+                refresh(touched);
+            }
+        }
+    }
+
+    private void markTouched(Long donorId) {
+        if (touchedDuringReload != null) {
+            touchedDuringReload.add(donorId);
+        }
+    }
+
+    /**
+     * Swap one donor's standing (caller holds the lock)
+     */
+    private void replace(Long donorId, Standing updated) {
+        Standing previous = updated != null ? standings.put(donorId, updated) : standings.remove(donorId);
+        if (previous != null && previous.active) {
+            rankings.get(ALL).remove(previous);
+            rankings.get(segment(previous)).remove(previous);
+        }
+        if (updated != null) {
+            rank(updated);
+        }
+    }
+
+    /**
+     * Add an active donor to the overall and its donor type's ranking (caller holds the lock)
+     */
+    private void rank(Standing standing) {
+        if (!standing.active) {
+            return;
+        }
+        rankings.computeIfAbsent(ALL, k -> new TreeSet<>(RANKING)).add(standing);
+        rankings.computeIfAbsent(segment(standing), k -> new TreeSet<>(RANKING)).add(standing);
+    }
+
+    private String segment(Standing standing) {
+        return standing.donorType != null ? standing.donorType.toUpperCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Add one (type, currency, day, amount) row to its donor's standing
+     * (money converted per donation, like the registration path)
+     */
+    private void accumulate(Map<Long, Standing> target, Map<String, Object> row) {
+        Long donorId = ((Number) row.get("donor_id")).longValue();
+        Standing standing = target.computeIfAbsent(donorId, id -> {
+            Standing created = new Standing();
+            created.donorId = id;
+            created.donorCode = (String) row.get("donor_code");
+            created.fullName = (String) row.get("full_name");
+            created.email = (String) row.get("email");
+            created.donorType = (String) row.get("donor_type");
+            created.active = "Y".equals(row.get("is_active"));
+            return created;
+        });
+        String typeCode = (String) row.get("type_code");
+        if (typeCode == null) {
+            return; // donor without donations
+        }
+        long donations = ((Number) row.get("donations")).longValue();
+        standing.donations += donations;
+        if (DonationBatchItem.MONEY.equals(typeCode)) {
+            Long currencyId = row.get("currency_id") != null ? ((Number) row.get("currency_id")).longValue() : null;
+            standing.valueMinor += currencyService.toBaseMinorUnits(toDecimal(row.get("amount")), currencyId,
+                                                                    toLocalDateTime(row.get("donation_day")).toLocalDate())
+                                   * donations;
+        } else {
+            standing.valueMinor += toMinorUnits(toDecimal(row.get("product_value")));
+        }
+        LocalDateTime lastDonation = toLocalDateTime(row.get("last_donation_date"));
+        if (lastDonation != null && (standing.lastDonation == null || lastDonation.isAfter(standing.lastDonation))) {
+            standing.lastDonation = lastDonation;
+        }
+    }
+
+    private static boolean sameTotals(Standing current, Standing fresh) {
+        if (current == null || fresh == null) {
+            return current == fresh;
+        }
+        return current.donations == fresh.donations && current.valueMinor == fresh.valueMinor
+                && current.active == fresh.active && Objects.equals(current.donorType, fresh.donorType);
+    }
+
+    private static long toMinorUnits(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Oracle DATE columns come back as Timestamp from queryForList
+     */
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10)).atStartOfDay();
+    }
+
+    /**
+     * One donor's details and donation totals; never changed once ranked
+     * (updates replace it with a modified copy)
+     */
+    private static class Standing {
+        private long donorId;
+        private String donorCode;
+        private String fullName;
+        private String email;
+        private String donorType;
+        private boolean active;
+        private long donations;
+        private long valueMinor; // PEN centimos
+        private LocalDateTime lastDonation;
+
+        Standing copy() {
+            Standing copy = new Standing();
+            copy.donorId = donorId;
+            copy.donorCode = donorCode;
+            copy.fullName = fullName;
+            copy.email = email;
+            copy.donorType = donorType;
+            copy.active = active;
+            copy.donations = donations;
+            copy.valueMinor = valueMinor;
+            copy.lastDonation = lastDonation;
+            return copy;
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.hopecare.service;
 
+import com.hopecare.config.ReadOnly;
 import com.hopecare.model.Donor;
+import com.hopecare.model.PageResult;
+import com.hopecare.model.SearchResult;
 import com.hopecare.repository.DatabaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Donor Service
@@ -17,18 +21,50 @@ public class DonorService {
     @Autowired
     private DatabaseRepository repository;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    @Autowired
+    private DonationRollupService donationRollups;
+
+    @Autowired
+    private DonorLeaderboardService leaderboard;
+
     /**
      * Get all active donors
      */
+    @ReadOnly
     public List<Donor> getAllDonors() {
-        return repository.getAllDonors();
+        List<Donor> donors = repository.getAllDonors();
+        leaderboard.fillTotalValues(donors);
+        return donors;
+    }
+
+    /**
+     * Get one page of donors (cursor from the previous page, null for the first)
+     */
+    @ReadOnly
+    public PageResult<Donor> getDonorsPage(String cursor, Integer size) {
+        PageResult<Donor> page = repository.getDonorsPage(cursor, size);
+        leaderboard.fillTotalValues(page.getItems());
+        return page;
     }
 
     /**
      * Get donor by ID
      */
     public Donor getDonorById(Long id) {
-        return repository.getDonorById(id);
+        Donor donor = repository.getDonorById(id);
+        if (donor != null) {
+            leaderboard.fillTotalValues(List.of(donor));
+        }
+        return donor;
     }
 
     /**
@@ -36,7 +72,13 @@ public class DonorService {
      */
     public Long registerDonor(Donor donor) {
         validateDonor(donor);
-        return repository.registerDonor(donor);
+        Long donorId = repository.registerDonor(donor);
+        dashboardMetrics.onDonorRegistered(donorId);
+        donationRollups.onDonorRegistered(donorId, donor.getDonorType());
+        leaderboard.onDonorRegistered(donorId);
+        searchIndex.index(SearchResult.DONOR, donorId);
+        dataVersions.bump(DataVersionService.Entity.DONORS, DataVersionService.Entity.DASHBOARD);
+        return donorId;
     }
 
     /**
@@ -48,16 +90,30 @@ public class DonorService {
             throw new IllegalArgumentException("Donor ID is required for update");
         }
         repository.updateDonor(donor);
+        leaderboard.onDonorUpdated(donor);
+        searchIndex.index(SearchResult.DONOR, donor.getDonorId());
+        dataVersions.bump(DataVersionService.Entity.DONORS);
+    }
+
+    /**
+     * Get the active donors with the highest donated value (PEN), optionally of one donor type
+     */
+    public List<Donor> getTopDonors(Integer limit, String donorType) {
+        return leaderboard.getTopDonors(limit, donorType);
     }
 
     /**
-     * Search donors by term
+     * Search donors by term (name, code or email), best matches first
      */
     public List<Donor> searchDonors(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllDonors();
         }
-        return repository.searchDonors(searchTerm);
+        List<Long> donorIds = searchIndex.search(searchTerm, List.of(SearchResult.DONOR), Integer.MAX_VALUE)
+                .stream().map(SearchResult::getId).collect(Collectors.toList());
+        List<Donor> donors = repository.getDonorsByIds(donorIds);
+        leaderboard.fillTotalValues(donors);
+        return donors;
     }
 
     /**
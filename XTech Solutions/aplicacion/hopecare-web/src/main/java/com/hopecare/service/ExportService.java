@@ -0,0 +1,270 @@
+package com.hopecare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hopecare.config.ReadOnly;
+import com.hopecare.model.Beneficiary;
+import com.hopecare.model.Delivery;
+import com.hopecare.model.Donation;
+import com.hopecare.model.Donor;
+import com.hopecare.repository.DatabaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Export Service
+ * Streams full histories straight from the JDBC cursor to the response
+ * as NDJSON or CSV, one row at a time with a fixed-size output buffer
+ */
+@Service
+public class ExportService {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DonorLeaderboardService leaderboard;
+
+    @Value("${hopecare.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Validate requested format
+     */
+    public String validateFormat(String format) {
+        String normalized = format == null ? FORMAT_NDJSON : format.trim().toLowerCase();
+        if (!FORMAT_NDJSON.equals(normalized) && !FORMAT_CSV.equals(normalized)) {
+            throw new IllegalArgumentException("Invalid export format. Must be: ndjson or csv");
+        }
+        return normalized;
+    }
+
+    /**
+     * Content type for a validated format
+     */
+    public String getContentType(String format) {
+        return FORMAT_CSV.equals(format) ? "text/csv;charset=UTF-8" : "application/x-ndjson";
+    }
+
+    /**
+     * Export active donors
+     */
+    @ReadOnly
+    public void exportDonors(String format, OutputStream out) throws IOException {
+        Map<String, Function<Donor, Object>> columns = new LinkedHashMap<>();
+        columns.put("donor_id", Donor::getDonorId);
+        columns.put("donor_code", Donor::getDonorCode);
+        columns.put("full_name", Donor::getFullName);
+        columns.put("email", Donor::getEmail);
+        columns.put("phone", Donor::getPhone);
+        columns.put("donor_type", Donor::getDonorType);
+        columns.put("address", Donor::getAddress);
+        columns.put("created_at", Donor::getCreatedAt);
+        columns.put("total_donations", Donor::getTotalDonations);
+        columns.put("total_value_pen", Donor::getTotalValuePen);
+        columns.put("last_donation_date", Donor::getLastDonationDate);
+        export(format, out, columns, consumer -> {
+            // Values are looked up a fetch of rows at a time, not per row under the leaderboard lock
+            List<Donor> chunk = new ArrayList<>(fetchSize);
+            repository.streamDonors(donor -> {
+                chunk.add(donor);
+                if (chunk.size() >= fetchSize) {
+                    leaderboard.fillTotalValues(chunk);
+                    chunk.forEach(consumer);
+                    chunk.clear();
+                }
+            });
+            leaderboard.fillTotalValues(chunk);
+            chunk.forEach(consumer);
+        });
+    }
+
+    /**
+     * Export active beneficiaries
+     */
+    @ReadOnly
+    public void exportBeneficiaries(String format, OutputStream out) throws IOException {
+        Map<String, Function<Beneficiary, Object>> columns = new LinkedHashMap<>();
+        columns.put("beneficiary_id", Beneficiary::getBeneficiaryId);
+        columns.put("beneficiary_code", Beneficiary::getBeneficiaryCode);
+        columns.put("full_name", Beneficiary::getFullName);
+        columns.put("family_size", Beneficiary::getFamilySize);
+        columns.put("phone", Beneficiary::getPhone);
+        columns.put("address", Beneficiary::getAddress);
+        columns.put("district", Beneficiary::getDistrict);
+        columns.put("city", Beneficiary::getCity);
+        columns.put("created_at", Beneficiary::getCreatedAt);
+        columns.put("total_deliveries", Beneficiary::getTotalDeliveries);
+        columns.put("total_quantity_received", Beneficiary::getTotalQuantityReceived);
+        columns.put("total_value_received_pen", Beneficiary::getTotalValueReceivedPen);
+        columns.put("last_delivery_date", Beneficiary::getLastDeliveryDate);
+        export(format, out, columns, repository::streamBeneficiaries);
+    }
+
+    /**
+     * Export full donation history
+     */
+    @ReadOnly
+    public void exportDonations(String format, OutputStream out) throws IOException {
+        Map<String, Function<Donation, Object>> columns = new LinkedHashMap<>();
+        columns.put("donation_id", Donation::getDonationId);
+        columns.put("donation_code", Donation::getDonationCode);
+        columns.put("donation_date", Donation::getDonationDate);
+        columns.put("donor_code", Donation::getDonorCode);
+        columns.put("donor_name", Donation::getDonorName);
+        columns.put("donor_type", Donation::getDonorType);
+        columns.put("donation_type", Donation::getDonationTypeName);
+        columns.put("amount", Donation::getAmount);
+        columns.put("currency_code", Donation::getCurrencyCode);
+        columns.put("amount_in_pen", Donation::getAmountInPen);
+        columns.put("product_description", Donation::getProductDescription);
+        columns.put("quantity", Donation::getQuantity);
+        columns.put("unit_value", Donation::getUnitValue);
+        columns.put("program_code", Donation::getProgramCode);
+        columns.put("program_name", Donation::getProgramName);
+        columns.put("notes", Donation::getNotes);
+        columns.put("created_by", Donation::getCreatedByName);
+        columns.put("created_at", Donation::getCreatedAt);
+        export(format, out, columns, repository::streamDonations);
+    }
+
+    /**
+     * Export full delivery history
+     */
+    @ReadOnly
+    public void exportDeliveries(String format, OutputStream out) throws IOException {
+        Map<String, Function<Delivery, Object>> columns = new LinkedHashMap<>();
+        columns.put("delivery_id", Delivery::getDeliveryId);
+        columns.put("delivery_code", Delivery::getDeliveryCode);
+        columns.put("delivery_date", Delivery::getDeliveryDate);
+        columns.put("status", Delivery::getStatus);
+        columns.put("beneficiary_code", Delivery::getBeneficiaryCode);
+        columns.put("beneficiary_name", Delivery::getBeneficiaryName);
+        columns.put("district", Delivery::getDistrict);
+        columns.put("city", Delivery::getCity);
+        columns.put("program_code", Delivery::getProgramCode);
+        columns.put("program_name", Delivery::getProgramName);
+        columns.put("product_description", Delivery::getProductDescription);
+        columns.put("quantity_delivered", Delivery::getQuantityDelivered);
+        columns.put("unit_value", Delivery::getUnitValue);
+        columns.put("total_value", Delivery::getTotalValue);
+        columns.put("notes", Delivery::getNotes);
+        columns.put("created_by", Delivery::getCreatedByName);
+        columns.put("approved_by", Delivery::getApprovedByName);
+        columns.put("created_at", Delivery::getCreatedAt);
+        export(format, out, columns, repository::streamDeliveries);
+    }
+
+    /**
+     * Export rows already held in memory (report job results), in column order
+     */
+    public void exportRows(String format, OutputStream out, List<String> columnNames,
+                           List<Map<String, Object>> rows) throws IOException {
+        Map<String, Function<Map<String, Object>, Object>> columns = new LinkedHashMap<>();
+        columnNames.forEach(name -> columns.put(name, row -> row.get(name)));
+        export(format, out, columns, rows::forEach);
+    }
+
+    /**
+     * Write rows from the repository stream in the requested format
+     */
+    private <T> void export(String format, OutputStream out, Map<String, Function<T, Object>> columns,
+                            Consumer<Consumer<T>> source) throws IOException {
+        try {
+            if (FORMAT_CSV.equals(validateFormat(format))) {
+                writeCsv(out, columns, source);
+            } else {
+                writeNdjson(out, source);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One JSON object per line, flushed only when the buffer fills
+     */
+    private <T> void writeNdjson(OutputStream out, Consumer<Consumer<T>> source) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(buffered)) {
+            source.accept(row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            buffered.write('\n');
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row
+     */
+    private <T> void writeCsv(OutputStream out, Map<String, Function<T, Object>> columns,
+                              Consumer<Consumer<T>> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", columns.keySet()));
+        writer.write("\r\n");
+        source.accept(row -> {
+            try {
+                boolean first = true;
+                for (Function<T, Object> column : columns.values()) {
+                    if (!first) {
+                        writer.write(',');
+                    }
+                    writer.write(escapeCsv(column.apply(row)));
+                    first = false;
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Quote a CSV field when it contains separators, quotes or line breaks
+     */
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 ||
+            text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
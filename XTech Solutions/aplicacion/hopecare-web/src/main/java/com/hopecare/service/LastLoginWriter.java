@@ -0,0 +1,90 @@
+package com.hopecare.service;
+
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last Login Writer
+ * Write-behind buffer for tbl_users.last_login: a login only records the
+ * time in memory (repeated logins of a user keep the latest), and the
+ * buffer is written in one JDBC batch on an interval and at shutdown, so
+ * a shift change does not take a pool connection per login.
+ * Reported as hopecare.last-login.queue.depth and hopecare.last-login.flush.
+ */
+@Service
+public class LastLoginWriter {
+
+    public static final String METRIC_NAME = "hopecare.last-login";
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginWriter.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, Timestamp> pending = new ConcurrentHashMap<>();
+
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder(METRIC_NAME + ".queue.depth", pending, Map::size)
+                .description("Users with a last login not yet written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder(METRIC_NAME + ".flush")
+                .description("Last login batch write latency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record a successful login
+     */
+    public void record(Long userId) {
+        if (userId != null) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            pending.merge(userId, now, (previous, current) -> current.after(previous) ? current : previous);
+        }
+    }
+
+    /**
+     * Write the buffered logins
+     */
+    @Scheduled(fixedDelayString = "${hopecare.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Timestamp> batch = new HashMap<>(pending);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            repository.updateUserLastLogins(batch);
+            // Logins recorded during the write keep their newer time for the next flush
+            batch.forEach(pending::remove);
+        } catch (Exception e) {
+            log.warn("Last login flush of {} users failed, will retry: {}", batch.size(), e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,310 @@
+package com.hopecare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live Update Service
+ * Pushes dashboard metric and inventory deltas to the open dashboard pages
+ * over server-sent events instead of having them poll the metrics view.
+ * Writes only mark what changed (the dashboard data version, committed
+ * stock of a program product); a publisher running at most
+ * hopecare.live.max-updates-per-second times per second sends one compact
+ * event per kind with just the changed values, so a burst of writes
+ * becomes a single update. Values come from the in-memory dashboard
+ * metrics and stock, never from a query. Connections are async servlet
+ * requests (no thread is held while idle); a comment heartbeat keeps
+ * proxies from closing them and drops clients that went away.
+ * The publisher runs on its own thread and only queues events: a small
+ * sender pool writes them, one client at a time per sender, so a slow
+ * client delays nobody else. A client with more than max-pending-events
+ * unsent is dropped (EventSource reconnects and gets a full snapshot).
+ * Reported as hopecare.live.connections and hopecare.live.senders.
+ */
+@Service
+public class LiveUpdateService {
+
+    public static final String METRICS_EVENT = "metrics";
+    public static final String INVENTORY_EVENT = "inventory";
+
+    public static final String METRIC_NAME = "hopecare.live";
+
+    private static final int MAX_UPDATES_PER_SECOND = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private StockReservationService stockReservations;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${hopecare.live.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${hopecare.live.max-updates-per-second:2}")
+    private int maxUpdatesPerSecond;
+
+    @Value("${hopecare.live.heartbeat-interval-ms:30000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${hopecare.live.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${hopecare.live.max-pending-events:16}")
+    private int maxPendingEvents;
+
+    private final Map<SseEmitter, Client> clients = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService publisher;
+    private ExecutorService senders;
+
+    private long publishedVersion = -1;                             // guarded by this
+    private Map<String, Object> publishedMetrics = new HashMap<>(); // guarded by this
+
+    @PostConstruct
+    public void init() {
+        int rate = Math.max(1, Math.min(maxUpdatesPerSecond, MAX_UPDATES_PER_SECOND));
+        if (rate != maxUpdatesPerSecond) {
+            log.warn("hopecare.live.max-updates-per-second {} out of range 1-{}, using {}",
+                     maxUpdatesPerSecond, MAX_UPDATES_PER_SECOND, rate);
+        }
+        Gauge.builder(METRIC_NAME + ".connections", clients, Map::size)
+                .description("Open live update streams")
+                .register(meterRegistry);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "live-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        senders = ExecutorServiceMetrics.monitor(meterRegistry, pool, METRIC_NAME + ".senders");
+
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleAtFixedRate(this::publish, 1000 / rate, 1000 / rate, TimeUnit.MILLISECONDS);
+        publisher.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                                         TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream; the first event carries all current metrics
+     * Throws IllegalStateException when the connection limit is reached.
+     */
+    public SseEmitter subscribe() {
+        if (clients.size() >= maxConnections) {
+            throw new IllegalStateException("Too many live update connections");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> clients.remove(emitter));
+        emitter.onTimeout(() -> clients.remove(emitter));
+        emitter.onError(error -> clients.remove(emitter));
+        Client client = new Client(emitter);
+        clients.put(emitter, client);
+        try {
+            // Queued ahead of any delta, so the client starts from the full metrics
+            enqueue(client, SseEmitter.event().name(METRICS_EVENT)
+                    .data(objectMapper.writeValueAsString(snapshot()), MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            clients.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Send what changed since the last run, at most once per interval
+     */
+    public void publish() {
+        try {
+            List<Map<String, Object>> inventoryDelta = stockReservations.drainChangedStock();
+            if (clients.isEmpty()) {
+                return;
+            }
+            Map<String, Object> metricsDelta = metricsDelta();
+            if (!metricsDelta.isEmpty()) {
+                broadcast(METRICS_EVENT, metricsDelta);
+            }
+            if (!inventoryDelta.isEmpty()) {
+                broadcast(INVENTORY_EVENT, inventoryDelta);
+            }
+        } catch (Exception e) {
+            log.warn("Live update publish failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies and find clients that left
+     */
+    public void heartbeat() {
+        for (Client client : clients.values()) {
+            enqueue(client, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publisher.shutdownNow();
+        senders.shutdownNow();
+        new ArrayList<>(clients.keySet()).forEach(SseEmitter::complete);
+        clients.clear();
+    }
+
+    /**
+     * Full metrics for a new client; the first one also sets the baseline
+     * for deltas (a later baseline could hide changes made in between, an
+     * older one only resends values the client already has)
+     */
+    private synchronized Map<String, Object> snapshot() {
+        long version = dataVersions.getVersion(DataVersionService.Entity.DASHBOARD);
+        Map<String, Object> current = dashboardMetrics.getMetrics();
+        if (publishedVersion < 0) {
+            publishedMetrics = new HashMap<>(current);
+            publishedVersion = version;
+        }
+        return current;
+    }
+
+    private synchronized Map<String, Object> metricsDelta() {
+        long version = dataVersions.getVersion(DataVersionService.Entity.DASHBOARD);
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (version == publishedVersion) {
+            return delta;
+        }
+        Map<String, Object> current = dashboardMetrics.getMetrics();
+        current.forEach((key, value) -> {
+            if (!Objects.equals(value, publishedMetrics.get(key))) {
+                delta.put(key, value);
+            }
+        });
+        publishedMetrics = new HashMap<>(current);
+        publishedVersion = version;
+        return delta;
+    }
+
+    private void broadcast(String eventName, Object payload) throws IOException {
+        // Serialized once for all clients
+        String json = objectMapper.writeValueAsString(payload);
+        for (Client client : clients.values()) {
+            enqueue(client, SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    /**
+     * Queue an event for one client and make sure a sender is draining its queue
+     */
+    private void enqueue(Client client, SseEmitter.SseEventBuilder event) {
+        if (client.pendingCount.incrementAndGet() > maxPendingEvents) {
+            drop(client); // too slow to keep up, it resynchronizes on reconnect
+            return;
+        }
+        client.pending.add(event);
+        scheduleSend(client);
+    }
+
+    private void scheduleSend(Client client) {
+        if (!client.sending.compareAndSet(false, true)) {
+            return; // the sender already draining this client picks the event up
+        }
+        try {
+            senders.execute(() -> send(client));
+        } catch (RejectedExecutionException e) {
+            client.sending.set(false);
+            drop(client);
+        }
+    }
+
+    private void send(Client client) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = client.pending.poll()) != null) {
+                client.pendingCount.decrementAndGet();
+                client.emitter.send(event);
+            }
+        } catch (Exception e) {
+            client.sending.set(false);
+            drop(client);
+            return;
+        }
+        client.sending.set(false);
+        if (!client.pending.isEmpty()) {
+            scheduleSend(client); // queued after the last poll
+        }
+    }
+
+    private void drop(Client client) {
+        if (clients.remove(client.emitter) == null) {
+            return;
+        }
+        client.pending.clear();
+        try {
+            client.emitter.complete();
+        } catch (Exception ignored) {
+            // already closed by the container
+        }
+    }
+
+    /**
+     * One open stream and the events not yet written to it
+     */
+    private static class Client {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
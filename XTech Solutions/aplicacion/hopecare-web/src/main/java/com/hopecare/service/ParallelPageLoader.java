@@ -0,0 +1,180 @@
+package com.hopecare.service;
+
+import com.hopecare.config.DeadlineAwareJdbcTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Parallel Page Loader
+ * Runs the independent reads behind a page concurrently on a small, fixed
+ * worker pool sized below the connection pool, so page latency approaches
+ * the slowest query instead of the sum. The time left until the page
+ * deadline is applied to each read's statements as their query timeout
+ * (reads served from cache take no connection at all). The first failure
+ * or the deadline cancels the remaining reads.
+ * Timed as hopecare.page.load (tags: page, outcome) and
+ * hopecare.page.load.query (tags: page, query, outcome).
+ */
+@Service
+public class ParallelPageLoader {
+
+    public static final String METRIC_NAME = "hopecare.page.load";
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelPageLoader.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.page-loader.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${hopecare.page-loader.queue-size:64}")
+    private int queueSize;
+
+    @Value("${hopecare.page-loader.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    private ExecutorService executor;
+
+    /**
+     * Create the worker pool, leaving connections free for other requests
+     */
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, Math.min(maxConcurrency, connectionPoolSize - 1));
+        if (threads != maxConcurrency) {
+            log.warn("Page loader concurrency {} exceeds connection pool size {}, using {}",
+                     maxConcurrency, connectionPoolSize, threads);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "page-loader-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Saturated: run on the request thread, i.e. fall back to sequential loading
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "hopecare.page-loader");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run the named reads concurrently and return their results under the same names
+     */
+    public Map<String, Object> load(String page, Map<String, Supplier<?>> queries) {
+        Timer.Sample pageSample = Timer.start(meterRegistry);
+        String outcome = "success";
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        CompletionService<Map.Entry<String, Object>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Map.Entry<String, Object>>> futures = new ArrayList<>(queries.size());
+        Map<String, Object> results = new HashMap<>();
+        try {
+            queries.forEach((name, query) -> futures.add(
+                    completion.submit(() -> Map.entry(name, run(page, name, query, deadline)))));
+
+            for (int i = 0; i < futures.size(); i++) {
+                long remaining = deadline - System.nanoTime();
+                Future<Map.Entry<String, Object>> done = completion.poll(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    outcome = "timeout";
+                    throw new QueryTimeoutException("Page " + page + " did not load within " + timeoutMs + " ms");
+                }
+                Map.Entry<String, Object> result = done.get();
+                results.put(result.getKey(), result.getValue());
+            }
+        } catch (ExecutionException e) {
+            outcome = "error";
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            outcome = "error";
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Page " + page + " load interrupted", e);
+        } catch (RuntimeException e) {
+            if ("success".equals(outcome)) {
+                outcome = "error";
+            }
+            throw e;
+        } finally {
+            // No-op for finished reads; cancels (interrupts) siblings after a failure or timeout
+            futures.forEach(future -> future.cancel(true));
+            pageSample.stop(Timer.builder(METRIC_NAME)
+                    .description("Page data load latency")
+                    .tag("page", page)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+        // Keep the caller's ordering
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        queries.keySet().forEach(name -> ordered.put(name, results.get(name)));
+        return ordered;
+    }
+
+    /**
+     * Run one read bounded by the page deadline
+     */
+    private Object run(String page, String name, Supplier<?> query, long deadline) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            if (deadline - System.nanoTime() <= 0) {
+                outcome = "timeout";
+                throw new QueryTimeoutException("No time left to run " + name);
+            }
+            return DeadlineAwareJdbcTemplate.withDeadline(deadline, query);
+        } catch (RuntimeException e) {
+            if ("success".equals(outcome)) {
+                outcome = Thread.currentThread().isInterrupted() ? "cancelled" : "error";
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME + ".query")
+                    .description("Page data query latency")
+                    .tag("page", page)
+                    .tag("query", name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
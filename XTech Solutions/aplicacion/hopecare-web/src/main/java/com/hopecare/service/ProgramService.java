@@ -1,6 +1,8 @@
 package com.hopecare.service;
 
+import com.hopecare.config.ReadOnly;
 import com.hopecare.model.Program;
+import com.hopecare.model.SearchResult;
 import com.hopecare.repository.DatabaseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -18,13 +20,33 @@ public class ProgramService {
     @Autowired
     private DatabaseRepository repository;
 
+    @Autowired
+    private DashboardMetricsService dashboardMetrics;
+
+    @Autowired
+    private SearchIndexService searchIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceData;
+
+    @Autowired
+    private DataVersionService dataVersions;
+
     /**
-     * Get all active programs
+     * Get all active programs with their donation and delivery totals
      */
+    @ReadOnly
     public List<Program> getAllPrograms() {
         return repository.getAllPrograms();
     }
 
+    /**
+     * Get active programs for dropdowns (cached reference data, no totals)
+     */
+    public List<Program> getProgramOptions() {
+        return referenceData.getPrograms();
+    }
+
     /**
      * Get program by ID
      */
@@ -37,12 +59,18 @@ public class ProgramService {
      */
     public Long createProgram(Program program) {
         validateProgram(program);
-        return repository.createProgram(program);
+        Long programId = repository.createProgram(program);
+        referenceData.invalidate(ReferenceDataCache.PROGRAMS);
+        dashboardMetrics.onProgramCreated(programId);
+        searchIndex.index(SearchResult.PROGRAM, programId);
+        dataVersions.bump(DataVersionService.Entity.PROGRAMS, DataVersionService.Entity.DASHBOARD);
+        return programId;
     }
 
     /**
      * Get inventory status
      */
+    @ReadOnly
     public List<Map<String, Object>> getInventoryStatus() {
         return repository.getInventoryStatus();
     }
@@ -0,0 +1,229 @@
+package com.hopecare.service;
+
+import com.hopecare.model.Program;
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reference Data Cache
+ * Keeps the dropdown data (currencies, programs, donation types) in memory
+ * so page renders do not hit tbl_currencies or tbl_programs. Only columns
+ * that change with the row itself are cached (program aggregates such as
+ * donation totals are read live from vw_program_summary). Entries
+ * expire after a TTL, the cache holds at most max-entries keys (least
+ * recently used evicted first), and writes invalidate the affected key.
+ * Concurrent misses on one key trigger a single load.
+ * Reported as hopecare.cache.gets (tags: cache, result) and
+ * hopecare.cache.evictions / hopecare.cache.size.
+ */
+@Service
+public class ReferenceDataCache {
+
+    public static final String CURRENCIES = "currencies";
+    public static final String PROGRAMS = "programs";
+    public static final String DONATION_TYPES = "donationTypes";
+
+    public static final String METRIC_NAME = "hopecare.cache";
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.reference-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${hopecare.reference-cache.max-entries:64}")
+    private int maxEntries;
+
+    private Map<String, CacheEntry> entries;
+    private final Map<String, CacheStatistics> statistics = new ConcurrentHashMap<>();
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Create the bounded entry map and register meters
+     */
+    @PostConstruct
+    public void init() {
+        entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > maxEntries) {
+                    statisticsFor(eldest.getKey()).evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+        Gauge.builder(METRIC_NAME + ".size", entries, Map::size)
+                .description("Reference data cache entries")
+                .register(meterRegistry);
+        statisticsFor(CURRENCIES);
+        statisticsFor(PROGRAMS);
+        statisticsFor(DONATION_TYPES);
+    }
+
+    /**
+     * Active currencies (dropdowns)
+     */
+    public List<Map<String, Object>> getCurrencies() {
+        return get(CURRENCIES, repository::getCurrencies);
+    }
+
+    /**
+     * Active programs without their aggregates (dropdowns)
+     */
+    public List<Program> getPrograms() {
+        return get(PROGRAMS, repository::getProgramOptions);
+    }
+
+    /**
+     * Active donation types
+     */
+    public List<Map<String, Object>> getDonationTypes() {
+        return get(DONATION_TYPES, repository::getDonationTypes);
+    }
+
+    /**
+     * Drop one key; the next read reloads it
+     */
+    public void invalidate(String key) {
+        CacheEntry removed = entries.remove(key);
+        if (removed != null) {
+            removed.invalidated = true;
+        }
+        // Loads already in flight must not store what they read
+        statisticsFor(key).generation.increment();
+    }
+
+    /**
+     * Drop every key
+     */
+    public void invalidateAll() {
+        for (String key : statistics.keySet()) {
+            invalidate(key);
+        }
+    }
+
+    /**
+     * Get hit/miss counts and entry age per key
+     */
+    public Map<String, Map<String, Object>> getStatistics() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        statistics.keySet().stream().sorted().forEach(key -> {
+            CacheStatistics stats = statistics.get(key);
+            CacheEntry entry = entries.get(key);
+            long hits = stats.hits.sum();
+            long misses = stats.misses.sum();
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("hits", hits);
+            map.put("misses", misses);
+            map.put("hitRatio", hits + misses > 0 ? (double) hits / (hits + misses) : 0.0);
+            map.put("loadFailures", stats.loadFailures.sum());
+            map.put("evictions", stats.evictions.sum());
+            map.put("cached", entry != null && !entry.isExpired());
+            map.put("ageMs", entry != null ? System.currentTimeMillis() - entry.loadedAt : null);
+            result.put(key, map);
+        });
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> get(String key, Supplier<List<T>> loader) {
+        CacheStatistics stats = statisticsFor(key);
+        CacheEntry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) {
+            stats.hits.increment();
+            return (List<T>) entry.value;
+        }
+
+        synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+            // Another request may have loaded it while this one waited
+            entry = entries.get(key);
+            if (entry != null && !entry.isExpired()) {
+                stats.hits.increment();
+                return (List<T>) entry.value;
+            }
+
+            stats.misses.increment();
+            long generation = stats.generation.sum();
+            List<T> value;
+            try {
+                value = Collections.unmodifiableList(loader.get());
+            } catch (RuntimeException e) {
+                stats.loadFailures.increment();
+                throw e;
+            }
+            if (generation == stats.generation.sum()) {
+                entries.put(key, new CacheEntry(value, System.currentTimeMillis(), ttlMs));
+            }
+            return value;
+        }
+    }
+
+    private CacheStatistics statisticsFor(String key) {
+        return statistics.computeIfAbsent(key, k -> {
+            CacheStatistics stats = new CacheStatistics();
+            FunctionCounter.builder(METRIC_NAME + ".gets", stats.hits, LongAdder::sum)
+                    .description("Reference data cache lookups")
+                    .tag("cache", k).tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_NAME + ".gets", stats.misses, LongAdder::sum)
+                    .description("Reference data cache lookups")
+                    .tag("cache", k).tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_NAME + ".evictions", stats.evictions, LongAdder::sum)
+                    .description("Reference data cache size evictions")
+                    .tag("cache", k)
+                    .register(meterRegistry);
+            return stats;
+        });
+    }
+
+    /**
+     * Cached value with its load time
+     */
+    private static class CacheEntry {
+        private final Object value;
+        private final long loadedAt;
+        private final long expiresAt;
+        private volatile boolean invalidated = false;
+
+        CacheEntry(Object value, long loadedAt, long ttlMs) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.expiresAt = loadedAt + ttlMs;
+        }
+
+        boolean isExpired() {
+            return invalidated || System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    /**
+     * Per-key counters
+     */
+    private static class CacheStatistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loadFailures = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder generation = new LongAdder();
+    }
+}
@@ -0,0 +1,609 @@
+package com.hopecare.service;
+
+import com.hopecare.config.DeadlineAwareJdbcTemplate;
+import com.hopecare.config.ReadWriteRoutingDataSource;
+import com.hopecare.model.ReportJob;
+import com.hopecare.repository.DatabaseRepository;
+import com.hopecare.repository.StoredProcedureGateway;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report Job Service
+ * Runs the PKG_REPORTS procedures in the background: a submit returns a
+ * job id at once, a small worker pool (kept below the connection pool
+ * size, reads routed to the read pool) streams each SYS_REFCURSOR into an
+ * in-memory result, and clients poll the job and download the result.
+ * A submit identical to a queued, running or still cached job returns
+ * that job; results are kept for hopecare.report-jobs.result-ttl-ms.
+ * Rows held across all jobs (results and runs in progress) are bounded
+ * by max-total-rows: when full the oldest completed results are dropped
+ * first, and a run that still does not fit fails. Reported as
+ * hopecare.report.job.rows. Queued jobs can be cancelled, running ones
+ * have their statement cancelled; a job shared by several submitters
+ * (HTTP sessions) is only cancelled once each of them has cancelled it.
+ * Timed as hopecare.report.job (tags: report, outcome).
+ */
+@Service
+public class ReportJobService {
+
+    public static final String TOTAL_DONATIONS_BY_PERIOD = "total_donations_by_period";
+    public static final String DONATIONS_BY_PROGRAM = "donations_by_program";
+    public static final String TOP_DONORS = "top_donors";
+    public static final String DELIVERIES_SUMMARY = "deliveries_summary";
+    public static final String PROGRAM_INVENTORY_STATUS = "program_inventory_status";
+    public static final String DONATIONS_BY_TYPE = "donations_by_type";
+
+    public static final String METRIC_NAME = "hopecare.report.job";
+
+    private static final Map<String, String> PROCEDURES = new LinkedHashMap<>();
+    static {
+        PROCEDURES.put(TOTAL_DONATIONS_BY_PERIOD, StoredProcedureGateway.TOTAL_DONATIONS_BY_PERIOD);
+        PROCEDURES.put(DONATIONS_BY_PROGRAM, StoredProcedureGateway.DONATIONS_BY_PROGRAM);
+        PROCEDURES.put(TOP_DONORS, StoredProcedureGateway.TOP_DONORS);
+        PROCEDURES.put(DELIVERIES_SUMMARY, StoredProcedureGateway.DELIVERIES_SUMMARY);
+        PROCEDURES.put(PROGRAM_INVENTORY_STATUS, StoredProcedureGateway.PROGRAM_INVENTORY_STATUS);
+        PROCEDURES.put(DONATIONS_BY_TYPE, StoredProcedureGateway.DONATIONS_BY_TYPE);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.report-jobs.workers:2}")
+    private int workers;
+
+    @Value("${hopecare.report-jobs.queue-size:50}")
+    private int queueSize;
+
+    @Value("${hopecare.report-jobs.timeout-ms:300000}")
+    private long timeoutMs;
+
+    @Value("${hopecare.report-jobs.result-ttl-ms:600000}")
+    private long resultTtlMs;
+
+    @Value("${hopecare.report-jobs.max-rows:100000}")
+    private int maxRows;
+
+    @Value("${hopecare.report-jobs.max-jobs:200}")
+    private int maxJobs;
+
+    @Value("${hopecare.report-jobs.max-total-rows:300000}")
+    private long maxTotalRows;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> jobsByRequest = new ConcurrentHashMap<>();
+    private final AtomicLong keptRows = new AtomicLong();
+
+    private ExecutorService executor;
+    private Counter deduplicated;
+
+    /**
+     * Create the worker pool, leaving connections free for other requests
+     */
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, Math.min(workers, connectionPoolSize - 1));
+        if (threads != workers) {
+            log.warn("Report job workers {} exceed connection pool size {}, using {}",
+                     workers, connectionPoolSize, threads);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "hopecare.report-jobs");
+
+        deduplicated = Counter.builder(METRIC_NAME + ".deduplicated")
+                .description("Report submissions answered by an existing job")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".rows", keptRows, AtomicLong::get)
+                .description("Report rows held in memory across all jobs")
+                .register(meterRegistry);
+        if (maxTotalRows < maxRows) {
+            log.warn("Report job max-total-rows {} is below max-rows {}, large reports will fail",
+                     maxTotalRows, maxRows);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(this::cancelJob);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Available reports and the parameters they take
+     */
+    public Map<String, List<String>> getReports() {
+        Map<String, List<String>> reports = new LinkedHashMap<>();
+        reports.put(TOTAL_DONATIONS_BY_PERIOD, List.of("startDate", "endDate"));
+        reports.put(DONATIONS_BY_PROGRAM, List.of());
+        reports.put(TOP_DONORS, List.of("limit"));
+        reports.put(DELIVERIES_SUMMARY, List.of());
+        reports.put(PROGRAM_INVENTORY_STATUS, List.of("programId"));
+        reports.put(DONATIONS_BY_TYPE, List.of());
+        return reports;
+    }
+
+    /**
+     * Queue a report run for a submitter (session id), or attach the
+     * submitter to the job already answering the same request
+     * Throws IllegalStateException when the queue or the job store is full.
+     */
+    public ReportJob submit(String report, Map<String, Object> parameters, String submitter) {
+        String reportName = report == null ? "" : report.trim().toLowerCase(Locale.ROOT);
+        String procedure = PROCEDURES.get(reportName);
+        if (procedure == null) {
+            throw new IllegalArgumentException("Unknown report. Must be one of: " + String.join(", ", PROCEDURES.keySet()));
+        }
+        Map<String, Object> normalized = new TreeMap<>();
+        Object[] args = toArguments(reportName, parameters != null ? parameters : Collections.emptyMap(), normalized);
+        String requestKey = reportName + normalized;
+
+        synchronized (this) {
+            Job existing = jobsByRequest.get(requestKey);
+            if (existing != null && existing.attach(submitter)) {
+                deduplicated.increment();
+                return existing.snapshot();
+            }
+            if (jobs.size() >= maxJobs) {
+                evictExpired();
+                if (jobs.size() >= maxJobs) {
+                    throw new IllegalStateException("Too many report jobs kept, try again later");
+                }
+            }
+
+            Job job = new Job(UUID.randomUUID().toString(), requestKey, reportName, procedure, normalized, args);
+            job.submitters.add(submitter);
+            jobs.put(job.jobId, job);
+            jobsByRequest.put(requestKey, job);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.jobId);
+                jobsByRequest.remove(requestKey, job);
+                throw new IllegalStateException("Report queue is full, try again later");
+            }
+            return job.snapshot();
+        }
+    }
+
+    /**
+     * Get a job, null when unknown or expired
+     */
+    public ReportJob getJob(String jobId) {
+        Job job = find(jobId);
+        return job != null ? job.snapshot() : null;
+    }
+
+    /**
+     * Get all kept jobs, newest first
+     */
+    public List<ReportJob> getJobs() {
+        List<ReportJob> snapshots = new ArrayList<>();
+        jobs.values().stream()
+                .filter(job -> !job.isExpired())
+                .sorted(Comparator.comparingLong((Job job) -> job.submittedAt).reversed())
+                .forEach(job -> snapshots.add(job.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Get a completed job's result (columns and rows), null when unknown or expired
+     * Throws IllegalStateException when the job has not completed.
+     */
+    public Map<String, Object> getResult(String jobId) {
+        Job job = find(jobId);
+        if (job == null) {
+            return null;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        synchronized (job) {
+            ReportJob snapshot = job.snapshot();
+            if (!ReportJob.COMPLETED.equals(snapshot.getStatus())) {
+                throw new IllegalStateException("Report job is " + snapshot.getStatus());
+            }
+            if (job.rows == null) {
+                return null; // dropped to stay within max-total-rows
+            }
+            result.put("job", snapshot);
+            result.put("columns", job.columns);
+            result.put("rows", job.rows);
+        }
+        return result;
+    }
+
+    /**
+     * Write a completed job's result as NDJSON or CSV; false when unknown or expired
+     * Throws IllegalStateException when the job has not completed.
+     */
+    public boolean exportResult(String jobId, String format, OutputStream out) throws IOException {
+        Map<String, Object> result = getResult(jobId);
+        if (result == null) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        List<String> columns = (List<String>) result.get("columns");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) result.get("rows");
+        exportService.exportRows(format, out, columns, rows);
+        return true;
+    }
+
+    /**
+     * Detach a submitter from a queued or running job, cancelling it when no
+     * other submitter is attached; null when unknown or expired
+     */
+    public ReportJob cancel(String jobId, String submitter) {
+        Job job = find(jobId);
+        if (job == null) {
+            return null;
+        }
+        synchronized (job) {
+            job.submitters.remove(submitter);
+            if (!job.submitters.isEmpty()) {
+                return job.snapshot(); // still wanted by another submitter
+            }
+        }
+        cancelJob(job);
+        return job.snapshot();
+    }
+
+    /**
+     * Drop finished jobs whose result has expired
+     */
+    @Scheduled(fixedDelayString = "${hopecare.report-jobs.cleanup-interval-ms:60000}")
+    public synchronized void evictExpired() {
+        jobs.values().removeIf(job -> {
+            if (job.isExpired()) {
+                jobsByRequest.remove(job.requestKey, job);
+                synchronized (job) {
+                    releaseRows(job);
+                }
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Count one more streamed row against max-total-rows, dropping the
+     * oldest completed results when full; false when nothing can be freed
+     */
+    private boolean reserveRow() {
+        if (keptRows.incrementAndGet() <= maxTotalRows) {
+            return true;
+        }
+        keptRows.decrementAndGet();
+        evictOldestResult();
+        if (keptRows.incrementAndGet() <= maxTotalRows) {
+            return true;
+        }
+        keptRows.decrementAndGet();
+        return false;
+    }
+
+    private synchronized void evictOldestResult() {
+        evictExpired();
+        if (keptRows.get() < maxTotalRows) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.rows != null)
+                .min(Comparator.comparingLong((Job job) -> job.finishedAt))
+                .ifPresent(job -> {
+                    jobs.remove(job.jobId);
+                    jobsByRequest.remove(job.requestKey, job);
+                    synchronized (job) {
+                        log.info("Dropping report job {} result to stay within max-total-rows", job.jobId);
+                        releaseRows(job);
+                    }
+                });
+    }
+
+    /**
+     * Give back a result's rows (caller holds the job's lock)
+     */
+    private void releaseRows(Job job) {
+        if (job.rows != null) {
+            keptRows.addAndGet(-job.rows.size());
+            job.rows = null;
+        }
+    }
+
+    private Job find(String jobId) {
+        Job job = jobId != null ? jobs.get(jobId) : null;
+        return job != null && !job.isExpired() ? job : null;
+    }
+
+    private void cancelJob(Job job) {
+        Statement statement;
+        synchronized (job) {
+            if (ReportJob.QUEUED.equals(job.status)) {
+                finish(job, ReportJob.CANCELLED, null);
+                return;
+            }
+            if (!ReportJob.RUNNING.equals(job.status)) {
+                return;
+            }
+            job.cancelRequested = true;
+            statement = job.statement;
+        }
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.debug("Cancelling report job {} statement failed: {}", job.jobId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Run one job on a worker thread
+     */
+    private void run(Job job) {
+        synchronized (job) {
+            if (!ReportJob.QUEUED.equals(job.status)) {
+                return; // cancelled while queued
+            }
+            job.status = ReportJob.RUNNING;
+            job.startedAt = System.currentTimeMillis();
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            DeadlineAwareJdbcTemplate.withDeadline(deadline, () -> ReadWriteRoutingDataSource.withReadOnly(() -> {
+                repository.streamReport(job.procedure, statement -> job.statement = statement, row -> {
+                    if (job.cancelRequested) {
+                        throw new CancellationException("Report job cancelled");
+                    }
+                    if (rows.size() >= maxRows) {
+                        throw new IllegalStateException("Report has more than " + maxRows + " rows");
+                    }
+                    if (!reserveRow()) {
+                        throw new IllegalStateException("Report results kept exceed " + maxTotalRows
+                                + " rows, try again later");
+                    }
+                    // Oracle returns upper-case column labels
+                    Map<String, Object> copy = new LinkedHashMap<>();
+                    row.forEach((column, value) -> copy.put(column.toLowerCase(Locale.ROOT), value));
+                    if (columns.isEmpty()) {
+                        columns.addAll(copy.keySet());
+                    }
+                    rows.add(copy);
+                }, job.args);
+                return null;
+            }));
+            synchronized (job) {
+                job.columns = columns;
+                job.rows = Collections.unmodifiableList(rows);
+                finish(job, job.cancelRequested ? ReportJob.CANCELLED : ReportJob.COMPLETED, null);
+                outcome = job.status.toLowerCase(Locale.ROOT);
+            }
+        } catch (RuntimeException e) {
+            keptRows.addAndGet(-rows.size()); // reserved while streaming, never kept
+            synchronized (job) {
+                if (job.cancelRequested) {
+                    finish(job, ReportJob.CANCELLED, null);
+                    outcome = "cancelled";
+                } else {
+                    log.warn("Report job {} ({}) failed: {}", job.jobId, job.report, e.getMessage());
+                    finish(job, ReportJob.FAILED, e.getMessage());
+                    outcome = "error";
+                }
+            }
+        } finally {
+            job.statement = null;
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Report job run time")
+                    .tag("report", job.report)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Move a job to a final status (caller holds the job's lock); only
+     * completed results answer later identical requests
+     */
+    private void finish(Job job, String status, String error) {
+        job.status = status;
+        job.error = error;
+        job.finishedAt = System.currentTimeMillis();
+        job.expiresAt = job.finishedAt + resultTtlMs;
+        if (!ReportJob.COMPLETED.equals(status)) {
+            releaseRows(job);
+            jobsByRequest.remove(job.requestKey, job);
+        }
+    }
+
+    /**
+     * Validate a report's parameters into procedure arguments; the
+     * normalized values (also the deduplication key) go into normalized
+     */
+    private Object[] toArguments(String report, Map<String, Object> parameters, Map<String, Object> normalized) {
+        Set<String> accepted = Set.copyOf(getReports().get(report));
+        for (String name : parameters.keySet()) {
+            if (!accepted.contains(name)) {
+                throw new IllegalArgumentException("Unknown parameter " + name + " for report " + report);
+            }
+        }
+        switch (report) {
+            case TOTAL_DONATIONS_BY_PERIOD: {
+                LocalDate startDate = toDate(parameters.get("startDate"), "startDate");
+                LocalDate endDate = toDate(parameters.get("endDate"), "endDate");
+                if (startDate.isAfter(endDate)) {
+                    throw new IllegalArgumentException("startDate must not be after endDate");
+                }
+                normalized.put("startDate", startDate.toString());
+                normalized.put("endDate", endDate.toString());
+                // Inclusive end date: the procedure compares donation_date with BETWEEN
+                return new Object[]{Timestamp.valueOf(startDate.atStartOfDay()),
+                                    Timestamp.valueOf(endDate.atTime(23, 59, 59))};
+            }
+            case TOP_DONORS: {
+                int limit = parameters.get("limit") != null ? toInt(parameters.get("limit"), "limit") : 10;
+                if (limit < 1 || limit > 1000) {
+                    throw new IllegalArgumentException("limit must be between 1 and 1000");
+                }
+                normalized.put("limit", limit);
+                return new Object[]{limit};
+            }
+            case PROGRAM_INVENTORY_STATUS: {
+                Long programId = parameters.get("programId") != null
+                        ? (long) toInt(parameters.get("programId"), "programId") : null;
+                if (programId != null) {
+                    normalized.put("programId", programId);
+                }
+                return new Object[]{programId};
+            }
+            default:
+                return new Object[0];
+        }
+    }
+
+    private LocalDate toDate(Object value, String name) {
+        if (value == null || value.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        try {
+            return LocalDate.parse(value.toString().trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date (yyyy-MM-dd)");
+        }
+    }
+
+    private int toInt(Object value, String name) {
+        try {
+            return Integer.parseInt(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    /**
+     * One report run; status fields are guarded by the job's lock
+     */
+    private static class Job {
+        private final String jobId;
+        private final String requestKey;
+        private final String report;
+        private final String procedure;
+        private final Map<String, Object> parameters;
+        private final Object[] args;
+        private final long submittedAt = System.currentTimeMillis();
+
+        private String status = ReportJob.QUEUED;
+        private Long startedAt;
+        private Long finishedAt;
+        private Long expiresAt;
+        private String error;
+        private volatile boolean cancelRequested;
+        private volatile Statement statement;
+        private volatile List<String> columns;
+        private volatile List<Map<String, Object>> rows; // counted in keptRows while set
+        private final Set<String> submitters = new HashSet<>();
+
+        Job(String jobId, String requestKey, String report, String procedure,
+            Map<String, Object> parameters, Object[] args) {
+            this.jobId = jobId;
+            this.requestKey = requestKey;
+            this.report = report;
+            this.procedure = procedure;
+            this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+            this.args = args;
+        }
+
+        synchronized boolean isExpired() {
+            return expiresAt != null && expiresAt <= System.currentTimeMillis();
+        }
+
+        /**
+         * Share this job with another identical submit; false when it can no longer answer it
+         */
+        synchronized boolean attach(String submitter) {
+            if (isExpired() || !(ReportJob.QUEUED.equals(status) || ReportJob.RUNNING.equals(status)
+                    || ReportJob.COMPLETED.equals(status))) {
+                return false;
+            }
+            submitters.add(submitter);
+            return true;
+        }
+
+        synchronized ReportJob snapshot() {
+            ReportJob snapshot = new ReportJob();
+            snapshot.setJobId(jobId);
+            snapshot.setReport(report);
+            snapshot.setParameters(parameters);
+            snapshot.setStatus(status);
+            snapshot.setSubmittedAt(new Timestamp(submittedAt));
+            snapshot.setStartedAt(startedAt != null ? new Timestamp(startedAt) : null);
+            snapshot.setFinishedAt(finishedAt != null ? new Timestamp(finishedAt) : null);
+            snapshot.setExpiresAt(expiresAt != null ? new Timestamp(expiresAt) : null);
+            snapshot.setRowCount(rows != null ? rows.size() : null);
+            snapshot.setError(error);
+            return snapshot;
+        }
+    }
+}
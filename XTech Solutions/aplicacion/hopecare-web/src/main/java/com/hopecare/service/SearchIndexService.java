@@ -0,0 +1,520 @@
+package com.hopecare.service;
+
+import com.hopecare.model.SearchResult;
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Search Index Service
+ * In-memory trigram index over donors, beneficiaries, programs and
+ * donation/delivery codes. Queries of three or more characters match any
+ * substring (candidates come from intersecting trigram posting lists and are
+ * then verified); shorter queries match word prefixes. Matching ignores case
+ * and accents. Built at startup, updated by the services on every register
+ * and update, and rebuilt on a schedule to pick up changes made outside the
+ * application.
+ */
+@Service
+public class SearchIndexService {
+
+    public static final List<String> TYPES = List.of(SearchResult.DONOR, SearchResult.BENEFICIARY,
+            SearchResult.PROGRAM, SearchResult.DONATION, SearchResult.DELIVERY);
+
+    public static final String METRIC_NAME = "hopecare.search";
+
+    private static final int MAX_MATCHES = 1000; // verified matches ranked per query
+    private static final String PREFIX_KEY = "\u0000"; // marks 1-2 character word prefixes in the gram map
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hopecare.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${hopecare.search.max-limit:100}")
+    private int maxLimit;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private Index index = new Index();          // guarded by lock
+    private List<Change> changesDuringRebuild;  // guarded by lock
+    private volatile boolean loaded = false;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void init() {
+        searchTimer = Timer.builder(METRIC_NAME)
+                .description("Search index query latency")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".documents", this, SearchIndexService::size)
+                .description("Entities in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Build the index once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Search index not built, will build on first search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild from the tables to pick up changes made outside the application
+     */
+    @Scheduled(initialDelayString = "${hopecare.search.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${hopecare.search.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Search index rebuild failed, keeping previous index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build a fresh index and swap it in; updates made meanwhile are replayed onto it
+     */
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            List<Change> changes = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = changes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Index fresh = new Index();
+            try {
+                for (String type : TYPES) {
+                    repository.streamSearchEntries(type, fresh::put);
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changesDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                changes.forEach(change -> change.applyTo(fresh));
+                index = fresh;
+                changesDuringRebuild = null;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Search index built with {} entries", fresh.size());
+        }
+    }
+
+    /**
+     * (Re)index one entity after it was registered or updated
+     */
+    public void index(String type, Long id) {
+        if (id != null) {
+            index(type, Collections.singletonList(id));
+        }
+    }
+
+    /**
+     * (Re)index entities after they were registered or updated; inactive ones are dropped
+     */
+    public void index(String type, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        try {
+            List<SearchResult> entries = repository.getSearchEntries(type, ids);
+            Set<Long> missing = new HashSet<>(ids);
+            List<Change> changes = new ArrayList<>(ids.size());
+            for (SearchResult entry : entries) {
+                missing.remove(entry.getId());
+                changes.add(new Change(type, entry.getId(), entry));
+            }
+            for (Long id : missing) {
+                changes.add(new Change(type, id, null));
+            }
+            apply(changes);
+        } catch (Exception e) {
+            // The next scheduled rebuild picks the change up
+            log.warn("Search index update for {} {} failed: {}", type, ids, e.getMessage());
+        }
+    }
+
+    /**
+     * Search all (or the given) entity types, best matches first
+     */
+    public List<SearchResult> search(String query, Collection<String> types, Integer limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> typeFilter = null;
+        if (types != null && !types.isEmpty()) {
+            typeFilter = new HashSet<>();
+            for (String type : types) {
+                String upper = type.trim().toUpperCase(Locale.ROOT);
+                if (!TYPES.contains(upper)) {
+                    throw new IllegalArgumentException("Unknown search type: " + type);
+                }
+                typeFilter.add(upper);
+            }
+        }
+        int max = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        if (!loaded) {
+            rebuild();
+        }
+
+        long start = System.nanoTime();
+        List<Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = index.search(normalized, typeFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt((Match m) -> -m.score)
+                .thenComparingInt(m -> TYPES.indexOf(m.entry.getType()))
+                .thenComparing(m -> m.entry.getName(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(m -> -m.doc));
+
+        List<SearchResult> results = new ArrayList<>(Math.min(max, matches.size()));
+        for (Match match : matches.subList(0, Math.min(max, matches.size()))) {
+            SearchResult entry = match.entry;
+            SearchResult result = new SearchResult(entry.getType(), entry.getId(), entry.getCode(),
+                                                   entry.getName(), entry.getDetail());
+            result.setScore(match.score);
+            results.add(result);
+        }
+        searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    /**
+     * Number of live entries in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Comma separated type list from a request parameter
+     */
+    public static List<String> parseTypes(String types) {
+        if (types == null || types.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private void apply(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            for (Change change : changes) {
+                change.applyTo(index);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.addAll(changes);
+            }
+            if (index.needsCompaction()) {
+                index = index.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Upper case, accents stripped, whitespace collapsed
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.toUpperCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Fields matched per type: codes everywhere, names for people and programs, email for donors
+     */
+    private static String[] indexedFields(SearchResult entry) {
+        switch (entry.getType()) {
+            case SearchResult.DONOR:
+                return new String[]{normalize(entry.getCode()), normalize(entry.getName()), normalize(entry.getDetail())};
+            case SearchResult.BENEFICIARY:
+            case SearchResult.PROGRAM:
+                return new String[]{normalize(entry.getCode()), normalize(entry.getName())};
+            default:
+                return new String[]{normalize(entry.getCode())};
+        }
+    }
+
+    /**
+     * Trigram / word-prefix index with append-only, sorted posting lists.
+     * Updates append a new document and tombstone the old one.
+     */
+    private static class Index {
+        private final List<Document> documents = new ArrayList<>();
+        private final BitSet removed = new BitSet();
+        private final Map<String, Integer> live = new HashMap<>();
+        private final Map<String, IntList> postings = new HashMap<>();
+
+        void put(SearchResult entry) {
+            String key = entry.getType() + ":" + entry.getId();
+            remove(key);
+
+            String[] fields = indexedFields(entry);
+            int doc = documents.size();
+            documents.add(new Document(entry, fields));
+            live.put(key, doc);
+
+            Set<String> grams = new HashSet<>();
+            for (String field : fields) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    grams.add(field.substring(i, i + 3));
+                }
+                for (String word : WORD_SEPARATORS.split(field)) {
+                    if (!word.isEmpty()) {
+                        grams.add(PREFIX_KEY + word.substring(0, 1));
+                    }
+                    if (word.length() >= 2) {
+                        grams.add(PREFIX_KEY + word.substring(0, 2));
+                    }
+                }
+            }
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(doc);
+            }
+        }
+
+        void remove(String key) {
+            Integer doc = live.remove(key);
+            if (doc != null) {
+                removed.set(doc);
+            }
+        }
+
+        int size() {
+            return live.size();
+        }
+
+        boolean needsCompaction() {
+            int dead = removed.cardinality();
+            return dead > 1000 && dead > live.size();
+        }
+
+        Index compact() {
+            Index compacted = new Index();
+            live.values().stream().sorted().forEach(doc -> compacted.put(documents.get(doc).entry));
+            return compacted;
+        }
+
+        List<Match> search(String query, Set<String> types) {
+            boolean prefixOnly = query.length() < 3;
+            Set<String> keys = new LinkedHashSet<>();
+            if (prefixOnly) {
+                keys.add(PREFIX_KEY + query);
+            } else {
+                for (int i = 0; i + 3 <= query.length(); i++) {
+                    keys.add(query.substring(i, i + 3));
+                }
+            }
+
+            List<IntList> lists = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                IntList list = postings.get(key);
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(IntList::size));
+
+            // Walk the shortest list newest-first, probe the others, verify the text
+            List<Match> matches = new ArrayList<>();
+            IntList shortest = lists.get(0);
+            for (int i = shortest.size() - 1; i >= 0 && matches.size() < MAX_MATCHES; i--) {
+                int doc = shortest.get(i);
+                if (removed.get(doc)) {
+                    continue;
+                }
+                boolean inAll = true;
+                for (int l = 1; l < lists.size() && inAll; l++) {
+                    inAll = lists.get(l).contains(doc);
+                }
+                if (!inAll) {
+                    continue;
+                }
+                Document document = documents.get(doc);
+                if (types != null && !types.contains(document.entry.getType())) {
+                    continue;
+                }
+                int score = document.score(query, prefixOnly);
+                if (score > 0) {
+                    matches.add(new Match(document.entry, score, doc));
+                }
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Indexed entity with its normalized fields
+     */
+    private static class Document {
+        private final SearchResult entry;
+        private final String[] fields;
+
+        Document(SearchResult entry, String[] fields) {
+            this.entry = entry;
+            this.fields = fields;
+        }
+
+        /**
+         * Exact field 100, field prefix 80, word prefix 60, substring 40
+         */
+        int score(String query, boolean prefixOnly) {
+            int best = 0;
+            for (String field : fields) {
+                if (field.equals(query)) {
+                    return 100;
+                } else if (field.startsWith(query)) {
+                    best = Math.max(best, 80);
+                } else if (startsWord(field, query)) {
+                    best = Math.max(best, 60);
+                } else if (!prefixOnly && field.contains(query)) {
+                    best = Math.max(best, 40);
+                }
+            }
+            return best;
+        }
+
+        private static boolean startsWord(String field, String query) {
+            for (int at = field.indexOf(query); at >= 0; at = field.indexOf(query, at + 1)) {
+                if (at == 0 || !Character.isLetterOrDigit(field.charAt(at - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Growable sorted int array (doc IDs are appended in increasing order)
+     */
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+
+    private static class Match {
+        private final SearchResult entry;
+        private final int score;
+        private final int doc;
+
+        Match(SearchResult entry, int score, int doc) {
+            this.entry = entry;
+            this.score = score;
+            this.doc = doc;
+        }
+    }
+
+    /**
+     * Index update: entry to (re)index, or null to remove
+     */
+    private static class Change {
+        private final String key;
+        private final SearchResult entry;
+
+        Change(String type, Long id, SearchResult entry) {
+            this.key = type + ":" + id;
+            this.entry = entry;
+        }
+
+        void applyTo(Index target) {
+            if (entry != null) {
+                target.put(entry);
+            } else {
+                target.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.hopecare.service;
+
+import com.hopecare.repository.DatabaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock Reservation Service
+ * Keeps the available quantity of every program product in memory and
+ * reserves stock before a delivery is written, so concurrent deliveries of
+ * the same product cannot oversell and never queue on the inventory row
+ * lock to find out. Each (program, product) has its own lock: deliveries of
+ * different products never contend. A reservation is confirmed when the
+ * write succeeds and released when it fails. Loaded from
+ * tbl_program_inventory at startup (unknown products on first use) and
+ * reconciled against the table on a schedule; a product is only corrected
+ * while it has no reservation in flight. Products whose committed stock
+ * changed are collected for the live update stream.
+ * Counted as hopecare.stock.reservations (tag: outcome) and
+ * hopecare.stock.reconcile.corrections.
+ */
+@Service
+public class StockReservationService {
+
+    public static final String METRIC_NAME = "hopecare.stock";
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    @Autowired
+    private DatabaseRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<StockKey, StockEntry> entries = new ConcurrentHashMap<>();
+    private final Set<StockEntry> changed = ConcurrentHashMap.newKeySet();
+
+    private Counter reservedCounter;
+    private Counter rejectedCounter;
+    private Counter releasedCounter;
+    private Counter correctionCounter;
+
+    @PostConstruct
+    public void init() {
+        reservedCounter = reservationCounter("reserved");
+        rejectedCounter = reservationCounter("rejected");
+        releasedCounter = reservationCounter("released");
+        correctionCounter = Counter.builder(METRIC_NAME + ".reconcile.corrections")
+                .description("In-memory stock figures corrected from tbl_program_inventory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load all stock once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Stock not preloaded, products will load on first delivery: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconcile in-memory stock against tbl_program_inventory
+     */
+    @Scheduled(initialDelayString = "${hopecare.stock.reconcile-interval-ms:60000}",
+               fixedDelayString = "${hopecare.stock.reconcile-interval-ms:60000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Stock reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Take quantity out of the available stock of a program product
+     * Throws IllegalArgumentException when the product is not stocked or
+     * the remaining stock is not enough.
+     */
+    public Reservation reserve(Long programId, String productDescription, int quantity) {
+        StockEntry entry = entryFor(programId, productDescription);
+        synchronized (entry) {
+            if (!entry.loaded) {
+                Integer available = repository.getAvailableStock(programId, productDescription);
+                entry.set(available);
+            }
+            if (!entry.stocked) {
+                rejectedCounter.increment();
+                throw new IllegalArgumentException("Product not found in program inventory");
+            }
+            if (quantity > entry.available) {
+                rejectedCounter.increment();
+                throw new IllegalArgumentException("Insufficient stock. Available: " + entry.available +
+                                                   ", Requested: " + quantity);
+            }
+            entry.available -= quantity;
+            entry.inFlight += quantity;
+            entry.version++;
+        }
+        reservedCounter.increment();
+        return new Reservation(entry, quantity);
+    }
+
+    /**
+     * Available stock not yet reserved (null if unknown or not stocked)
+     */
+    public Integer getAvailable(Long programId, String productDescription) {
+        StockEntry entry = entries.get(new StockKey(programId, productDescription));
+        if (entry == null) {
+            return null;
+        }
+        synchronized (entry) {
+            return entry.loaded && entry.stocked ? (int) entry.available : null;
+        }
+    }
+
+    /**
+     * The delivery was written: the stock stays taken
+     */
+    public void confirm(Reservation reservation) {
+        complete(reservation, true);
+    }
+
+    /**
+     * The delivery failed: give the stock back
+     */
+    public void release(Reservation reservation) {
+        complete(reservation, false);
+    }
+
+    /**
+     * Confirm on commit or release on rollback of the current transaction
+     * (confirmed right away when no transaction is active)
+     */
+    public void completeWithTransaction(Reservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirm(reservation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(reservation, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Stock was added to a program product (product donation)
+     */
+    public void onStockAdded(Long programId, String productDescription, int quantity) {
+        StockEntry entry = entries.get(new StockKey(programId, productDescription));
+        if (entry == null) {
+            return; // loaded on first use
+        }
+        synchronized (entry) {
+            if (entry.loaded) {
+                entry.available += quantity;
+                entry.stocked = true;
+                entry.version++;
+                changed.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Products whose committed stock changed since the last call, with their
+     * committed quantity (programId, upper-case productDescription, availableQuantity)
+     */
+    public List<Map<String, Object>> drainChangedStock() {
+        List<Map<String, Object>> drained = new ArrayList<>();
+        for (StockEntry entry : changed) {
+            changed.remove(entry);
+            Map<String, Object> row = new LinkedHashMap<>();
+            synchronized (entry) {
+                row.put("programId", entry.programId);
+                row.put("productDescription", entry.productDescription);
+                // Reservations in flight are not committed yet
+                row.put("availableQuantity", entry.stocked ? entry.available + entry.inFlight : null);
+            }
+            drained.add(row);
+        }
+        return drained;
+    }
+
+    /**
+     * Correct every product without reservations in flight from the table
+     */
+    public void reconcile() {
+        Map<StockEntry, Long> versions = new HashMap<>();
+        entries.values().forEach(entry -> {
+            synchronized (entry) {
+                versions.put(entry, entry.version);
+            }
+        });
+
+        Map<StockKey, Integer> table = new HashMap<>();
+        List<Map<String, Object>> rows = repository.getInventoryAvailability();
+        for (Map<String, Object> row : rows) {
+            Number available = (Number) row.get("available_quantity");
+            table.merge(new StockKey(((Number) row.get("program_id")).longValue(),
+                                     (String) row.get("product_description")),
+                        available != null ? available.intValue() : 0, Integer::sum);
+        }
+
+        int corrections = 0;
+        for (Map.Entry<StockKey, StockEntry> mapEntry : entries.entrySet()) {
+            StockEntry entry = mapEntry.getValue();
+            Long version = versions.get(entry);
+            synchronized (entry) {
+                // Skip products touched while the table was read: their row may predate the change
+                if (version == null || version != entry.version || entry.inFlight != 0) {
+                    continue;
+                }
+                Integer available = table.get(mapEntry.getKey());
+                if (entry.loaded && (entry.stocked != (available != null)
+                        || (available != null && entry.available != available))) {
+                    corrections++;
+                    changed.add(entry);
+                }
+                entry.set(available);
+            }
+        }
+        for (Map.Entry<StockKey, Integer> row : table.entrySet()) {
+            StockEntry entry = entries.computeIfAbsent(row.getKey(), StockEntry::new);
+            synchronized (entry) {
+                if (!entry.loaded) {
+                    entry.set(row.getValue());
+                }
+            }
+        }
+        correctionCounter.increment(corrections);
+        if (corrections > 0) {
+            log.info("Stock reconciliation corrected {} products", corrections);
+        }
+    }
+
+    private void complete(Reservation reservation, boolean success) {
+        StockEntry entry = reservation.entry;
+        synchronized (entry) {
+            if (reservation.completed) {
+                return;
+            }
+            reservation.completed = true;
+            entry.inFlight -= reservation.quantity;
+            if (!success) {
+                entry.available += reservation.quantity;
+            } else {
+                changed.add(entry);
+            }
+            entry.version++;
+        }
+        if (!success) {
+            releasedCounter.increment();
+        }
+    }
+
+    private StockEntry entryFor(Long programId, String productDescription) {
+        return entries.computeIfAbsent(new StockKey(programId, productDescription), StockEntry::new);
+    }
+
+    private Counter reservationCounter(String outcome) {
+        return Counter.builder(METRIC_NAME + ".reservations")
+                .description("Stock reservations")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stock taken for one delivery (or one dispatch) until it is confirmed or released
+     */
+    public static final class Reservation {
+        private final StockEntry entry;
+        private final int quantity;
+        private boolean completed = false; // guarded by entry
+
+        private Reservation(StockEntry entry, int quantity) {
+            this.entry = entry;
+            this.quantity = quantity;
+        }
+
+        public int getQuantity() { return quantity; }
+    }
+
+    /**
+     * Program and product, compared like UPPER(product_description) in PKG_DELIVERIES
+     */
+    private static final class StockKey {
+        private final Long programId;
+        private final String product;
+
+        StockKey(Long programId, String productDescription) {
+            this.programId = programId;
+            this.product = productDescription != null ? productDescription.toUpperCase(Locale.ROOT) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StockKey)) return false;
+            StockKey other = (StockKey) o;
+            return Objects.equals(programId, other.programId) && Objects.equals(product, other.product);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(programId, product);
+        }
+    }
+
+    /**
+     * Stock of one program product; all fields guarded by the entry itself
+     */
+    private static final class StockEntry {
+        private final Long programId;
+        private final String productDescription;
+        private boolean loaded = false;
+        private boolean stocked = false;
+        private long available = 0;
+        private long inFlight = 0;
+        private long version = 0;
+
+        StockEntry(StockKey key) {
+            this.programId = key.programId;
+            this.productDescription = key.product;
+        }
+
+        void set(Integer tableQuantity) {
+            loaded = true;
+            stocked = tableQuantity != null;
+            available = tableQuantity != null ? tableQuantity : 0;
+            version++;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- tbl_replication_heartbeat for the local-routing profile (see scripts/02_tables.sql)
+CREATE TABLE IF NOT EXISTS tbl_replication_heartbeat (
+    heartbeat_id NUMBER PRIMARY KEY,
+    beat_ms NUMBER(15) NOT NULL
+);
+MERGE INTO tbl_replication_heartbeat (heartbeat_id, beat_ms) KEY (heartbeat_id) VALUES (1, 0);
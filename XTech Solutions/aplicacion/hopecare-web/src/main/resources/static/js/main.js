@@ -100,6 +100,19 @@ async function apiRequest(url, method = 'GET', data = null) {
     }
 }
 
+/**
+ * Live updates (server-sent events)
+ * handlers: event name -> function(data); the browser reconnects by itself
+ */
+function subscribeLiveUpdates(handlers) {
+    if (!window.EventSource) return null;
+    const source = new EventSource('/hopecare/live/api/stream');
+    Object.keys(handlers).forEach(name => {
+        source.addEventListener(name, event => handlers[name](JSON.parse(event.data)));
+    });
+    return source;
+}
+
 /**
  * Confirm action
  */
@@ -254,6 +254,22 @@ CREATE TABLE tbl_audit_deliveries (
 
 PROMPT 'Audit tables created successfully';
 
+-- ============================================================
+-- REPLICATION HEARTBEAT
+-- ============================================================
+
+-- Single row stamped by the application on the primary; the age of the
+-- stamp read on a replica is its lag (read pool fallback)
+CREATE TABLE tbl_replication_heartbeat (
+    heartbeat_id NUMBER PRIMARY KEY,
+    beat_ms NUMBER(15) NOT NULL -- epoch milliseconds
+);
+
+INSERT INTO tbl_replication_heartbeat (heartbeat_id, beat_ms) VALUES (1, 0);
+COMMIT;
+
+PROMPT 'Replication heartbeat table created successfully';
+
 -- ============================================================
 -- SUCCESS MESSAGE
 -- ============================================================
@@ -261,7 +277,7 @@ PROMPT 'Audit tables created successfully';
 BEGIN
   DBMS_OUTPUT.PUT_LINE('========================================');
   DBMS_OUTPUT.PUT_LINE('ALL TABLES CREATED SUCCESSFULLY!');
-  DBMS_OUTPUT.PUT_LINE('Total: 14 tables + 14 sequences');
+  DBMS_OUTPUT.PUT_LINE('Total: 15 tables + 14 sequences');
   DBMS_OUTPUT.PUT_LINE('========================================');
 END;
 /
\ No newline at end of file
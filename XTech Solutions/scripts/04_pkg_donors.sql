@@ -72,6 +72,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
         p_created_by IN NUMBER,
         p_donation_id OUT NUMBER
     ) IS
+        v_donation_id NUMBER;
         v_donation_code VARCHAR2(20);
         v_donation_type_id NUMBER;
         v_amount_pen NUMBER;
@@ -107,9 +108,11 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
         FROM tbl_donation_types
         WHERE type_code = 'MONEY';
         
-        -- Generate donation code
+        -- Generate donation code from the ID it will be stored with
+        -- (CURRVAL + 1 raced with other sessions and truncated past 999)
+        v_donation_id := seq_donations.NEXTVAL;
         v_donation_code := 'DON-' || TO_CHAR(SYSDATE, 'YYYY') || '-' || 
-                          LPAD(seq_donations.CURRVAL + 1, 3, '0');
+                          LPAD(v_donation_id, GREATEST(3, LENGTH(v_donation_id)), '0');
         
         -- Convert amount to PEN
         v_amount_pen := convert_to_base_currency(p_amount, p_currency_id);
@@ -130,7 +133,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
             created_by,
             created_at
         ) VALUES (
-            seq_donations.NEXTVAL,
+            v_donation_id,
             v_donation_code,
             p_donor_id,
             v_donation_type_id,
@@ -192,6 +195,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
         p_created_by IN NUMBER,
         p_donation_id OUT NUMBER
     ) IS
+        v_donation_id NUMBER;
         v_donation_code VARCHAR2(20);
         v_donation_type_id NUMBER;
         v_total_value NUMBER;
@@ -233,9 +237,11 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
         FROM tbl_donation_types
         WHERE type_code = 'PRODUCT';
         
-        -- Generate donation code
+        -- Generate donation code from the ID it will be stored with
+        -- (CURRVAL + 1 raced with other sessions and truncated past 999)
+        v_donation_id := seq_donations.NEXTVAL;
         v_donation_code := 'DON-' || TO_CHAR(SYSDATE, 'YYYY') || '-' || 
-                          LPAD(seq_donations.CURRVAL + 1, 3, '0');
+                          LPAD(v_donation_id, GREATEST(3, LENGTH(v_donation_id)), '0');
         
         -- Calculate total value
         v_total_value := p_quantity * NVL(p_unit_value, 0);
@@ -256,7 +262,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donations AS
             created_by,
             created_at
         ) VALUES (
-            seq_donations.NEXTVAL,
+            v_donation_id,
             v_donation_code,
             p_donor_id,
             v_donation_type_id,
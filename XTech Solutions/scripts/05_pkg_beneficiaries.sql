@@ -68,6 +68,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_deliveries AS
         p_created_by IN NUMBER,
         p_delivery_id OUT NUMBER
     ) IS
+        v_delivery_id NUMBER;
         v_delivery_code VARCHAR2(20);
         v_available_stock NUMBER;
         v_unit_value NUMBER;
@@ -128,9 +129,11 @@ CREATE OR REPLACE PACKAGE BODY pkg_deliveries AS
         -- Calculate total value
         v_total_value := p_quantity * NVL(v_unit_value, 0);
         
-        -- Generate delivery code
+        -- Generate delivery code from the ID it will be stored with
+        -- (CURRVAL + 1 raced with other sessions and truncated past 999)
+        v_delivery_id := seq_deliveries.NEXTVAL;
         v_delivery_code := 'DEL-' || TO_CHAR(SYSDATE, 'YYYY') || '-' || 
-                          LPAD(seq_deliveries.CURRVAL + 1, 3, '0');
+                          LPAD(v_delivery_id, GREATEST(3, LENGTH(v_delivery_id)), '0');
         
         -- Insert delivery record
         INSERT INTO tbl_deliveries (
@@ -149,7 +152,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_deliveries AS
             approved_by,
             created_at
         ) VALUES (
-            seq_deliveries.NEXTVAL,
+            v_delivery_id,
             v_delivery_code,
             p_beneficiary_id,
             p_program_id,
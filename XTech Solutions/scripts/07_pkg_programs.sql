@@ -72,6 +72,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donors AS
         p_address IN VARCHAR2,
         p_donor_id OUT NUMBER
     ) IS
+        v_donor_id NUMBER;
         v_donor_code VARCHAR2(20);
         v_email_exists NUMBER;
     BEGIN
@@ -97,7 +98,8 @@ CREATE OR REPLACE PACKAGE BODY pkg_donors AS
         END IF;
         
         -- Generate donor code
-        v_donor_code := 'DON' || LPAD(seq_donors.NEXTVAL, 3, '0');
+        v_donor_id := seq_donors.NEXTVAL;
+        v_donor_code := 'DON' || LPAD(v_donor_id, GREATEST(3, LENGTH(v_donor_id)), '0');
         
         -- Insert donor
         INSERT INTO tbl_donors (
@@ -112,7 +114,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_donors AS
             created_at,
             updated_at
         ) VALUES (
-            seq_donors.CURRVAL,
+            v_donor_id,
             v_donor_code,
             TRIM(p_full_name),
             p_email,
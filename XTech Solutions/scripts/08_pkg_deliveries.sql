@@ -85,6 +85,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_beneficiaries AS
         p_notes IN VARCHAR2,
         p_beneficiary_id OUT NUMBER
     ) IS
+        v_beneficiary_id NUMBER;
         v_beneficiary_code VARCHAR2(20);
     BEGIN
         -- Validate inputs
@@ -101,7 +102,8 @@ CREATE OR REPLACE PACKAGE BODY pkg_beneficiaries AS
         END IF;
         
         -- Generate beneficiary code
-        v_beneficiary_code := 'BEN' || LPAD(seq_beneficiaries.NEXTVAL, 3, '0');
+        v_beneficiary_id := seq_beneficiaries.NEXTVAL;
+        v_beneficiary_code := 'BEN' || LPAD(v_beneficiary_id, GREATEST(3, LENGTH(v_beneficiary_id)), '0');
         
         -- Insert beneficiary
         INSERT INTO tbl_beneficiaries (
@@ -118,7 +120,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_beneficiaries AS
             created_at,
             updated_at
         ) VALUES (
-            seq_beneficiaries.CURRVAL,
+            v_beneficiary_id,
             v_beneficiary_code,
             TRIM(p_full_name),
             NVL(p_family_size, 1),
@@ -79,6 +79,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_programs AS
         p_end_date IN DATE,
         p_program_id OUT NUMBER
     ) IS
+        v_program_id NUMBER;
         v_program_code VARCHAR2(20);
     BEGIN
         -- Validate inputs
@@ -91,7 +92,8 @@ CREATE OR REPLACE PACKAGE BODY pkg_programs AS
         END IF;
         
         -- Generate program code
-        v_program_code := 'PROG' || LPAD(seq_programs.NEXTVAL, 3, '0');
+        v_program_id := seq_programs.NEXTVAL;
+        v_program_code := 'PROG' || LPAD(v_program_id, GREATEST(3, LENGTH(v_program_id)), '0');
         
         -- Insert program
         INSERT INTO tbl_programs (
@@ -106,7 +108,7 @@ CREATE OR REPLACE PACKAGE BODY pkg_programs AS
             created_at,
             updated_at
         ) VALUES (
-            seq_programs.CURRVAL,
+            v_program_id,
             v_program_code,
             TRIM(p_program_name),
             p_description,
@@ -1,14 +1,57 @@
 -- ================================================================
 -- HOPECARE PROJECT - 10_TRIGGERS.SQL
 -- Audit triggers for donations and deliveries
+-- INSERT audits have their own triggers (TRG_AUDIT_DONATIONS_INS,
+-- TRG_AUDIT_DELIVERIES_INS): 16_audit_mode.sql disables them to switch
+-- the schema to application audit mode, where the web application writes
+-- the same INSERT audit rows itself, in batches. UPDATE and DELETE audits
+-- always stay in TRG_AUDIT_DONATIONS and TRG_AUDIT_DELIVERIES.
 -- ================================================================
 
 -- ============================================================
 -- TRIGGER 1: AUDIT DONATIONS
 -- ============================================================
 
+CREATE OR REPLACE TRIGGER trg_audit_donations_ins
+AFTER INSERT ON tbl_donations
+FOR EACH ROW
+BEGIN
+    -- Insert audit record
+    INSERT INTO tbl_audit_donations (
+        audit_id,
+        donation_id,
+        action_type,
+        old_values,
+        new_values,
+        changed_by,
+        changed_at
+    ) VALUES (
+        seq_audit_donations.NEXTVAL,
+        :NEW.donation_id,
+        'INSERT',
+        NULL,
+        'ID:' || :NEW.donation_id ||
+            ',CODE:' || :NEW.donation_code ||
+            ',DONOR:' || :NEW.donor_id ||
+            ',TYPE:' || :NEW.donation_type_id ||
+            ',AMOUNT:' || :NEW.amount ||
+            ',PRODUCT:' || :NEW.product_description ||
+            ',QTY:' || :NEW.quantity,
+        :NEW.created_by,
+        CURRENT_TIMESTAMP
+    );
+    
+EXCEPTION
+    WHEN OTHERS THEN
+        -- Don't fail the main operation if audit fails
+        DBMS_OUTPUT.PUT_LINE('Audit trigger error: ' || SQLERRM);
+END;
+/
+
+PROMPT 'Trigger created: TRG_AUDIT_DONATIONS_INS';
+
 CREATE OR REPLACE TRIGGER trg_audit_donations
-AFTER INSERT OR UPDATE OR DELETE ON tbl_donations
+AFTER UPDATE OR DELETE ON tbl_donations
 FOR EACH ROW
 DECLARE
     v_action_type VARCHAR2(20);
@@ -17,19 +60,7 @@ DECLARE
     v_changed_by NUMBER;
 BEGIN
     -- Determine action type
-    IF INSERTING THEN
-        v_action_type := 'INSERT';
-        v_old_values := NULL;
-        v_new_values := 'ID:' || :NEW.donation_id || 
-                       ',CODE:' || :NEW.donation_code || 
-                       ',DONOR:' || :NEW.donor_id || 
-                       ',TYPE:' || :NEW.donation_type_id || 
-                       ',AMOUNT:' || :NEW.amount || 
-                       ',PRODUCT:' || :NEW.product_description ||
-                       ',QTY:' || :NEW.quantity;
-        v_changed_by := :NEW.created_by;
-        
-    ELSIF UPDATING THEN
+    IF UPDATING THEN
         v_action_type := 'UPDATE';
         v_old_values := 'ID:' || :OLD.donation_id || 
                        ',CODE:' || :OLD.donation_code || 
@@ -71,7 +102,7 @@ BEGIN
         changed_at
     ) VALUES (
         seq_audit_donations.NEXTVAL,
-        COALESCE(:NEW.donation_id, :OLD.donation_id),
+        :OLD.donation_id,
         v_action_type,
         v_old_values,
         v_new_values,
@@ -92,8 +123,46 @@ PROMPT 'Trigger created: TRG_AUDIT_DONATIONS';
 -- TRIGGER 2: AUDIT DELIVERIES
 -- ============================================================
 
+CREATE OR REPLACE TRIGGER trg_audit_deliveries_ins
+AFTER INSERT ON tbl_deliveries
+FOR EACH ROW
+BEGIN
+    -- Insert audit record
+    INSERT INTO tbl_audit_deliveries (
+        audit_id,
+        delivery_id,
+        action_type,
+        old_values,
+        new_values,
+        changed_by,
+        changed_at
+    ) VALUES (
+        seq_audit_deliveries.NEXTVAL,
+        :NEW.delivery_id,
+        'INSERT',
+        NULL,
+        'ID:' || :NEW.delivery_id ||
+            ',CODE:' || :NEW.delivery_code ||
+            ',BENEF:' || :NEW.beneficiary_id ||
+            ',PROG:' || :NEW.program_id ||
+            ',PRODUCT:' || :NEW.product_description ||
+            ',QTY:' || :NEW.quantity_delivered ||
+            ',STATUS:' || :NEW.status,
+        :NEW.created_by,
+        CURRENT_TIMESTAMP
+    );
+    
+EXCEPTION
+    WHEN OTHERS THEN
+        -- Don't fail the main operation if audit fails
+        DBMS_OUTPUT.PUT_LINE('Audit trigger error: ' || SQLERRM);
+END;
+/
+
+PROMPT 'Trigger created: TRG_AUDIT_DELIVERIES_INS';
+
 CREATE OR REPLACE TRIGGER trg_audit_deliveries
-AFTER INSERT OR UPDATE OR DELETE ON tbl_deliveries
+AFTER UPDATE OR DELETE ON tbl_deliveries
 FOR EACH ROW
 DECLARE
     v_action_type VARCHAR2(20);
@@ -102,19 +171,7 @@ DECLARE
     v_changed_by NUMBER;
 BEGIN
     -- Determine action type
-    IF INSERTING THEN
-        v_action_type := 'INSERT';
-        v_old_values := NULL;
-        v_new_values := 'ID:' || :NEW.delivery_id || 
-                       ',CODE:' || :NEW.delivery_code || 
-                       ',BENEF:' || :NEW.beneficiary_id || 
-                       ',PROG:' || :NEW.program_id || 
-                       ',PRODUCT:' || :NEW.product_description ||
-                       ',QTY:' || :NEW.quantity_delivered ||
-                       ',STATUS:' || :NEW.status;
-        v_changed_by := :NEW.created_by;
-        
-    ELSIF UPDATING THEN
+    IF UPDATING THEN
         v_action_type := 'UPDATE';
         v_old_values := 'ID:' || :OLD.delivery_id || 
                        ',CODE:' || :OLD.delivery_code || 
@@ -156,7 +213,7 @@ BEGIN
         changed_at
     ) VALUES (
         seq_audit_deliveries.NEXTVAL,
-        COALESCE(:NEW.delivery_id, :OLD.delivery_id),
+        :OLD.delivery_id,
         v_action_type,
         v_old_values,
         v_new_values,
@@ -223,7 +280,9 @@ BEGIN
   DBMS_OUTPUT.PUT_LINE('========================================');
   DBMS_OUTPUT.PUT_LINE('ALL TRIGGERS CREATED SUCCESSFULLY!');
   DBMS_OUTPUT.PUT_LINE('Audit Triggers:');
+  DBMS_OUTPUT.PUT_LINE('  - trg_audit_donations_ins');
   DBMS_OUTPUT.PUT_LINE('  - trg_audit_donations');
+  DBMS_OUTPUT.PUT_LINE('  - trg_audit_deliveries_ins');
   DBMS_OUTPUT.PUT_LINE('  - trg_audit_deliveries');
   DBMS_OUTPUT.PUT_LINE('Utility Triggers:');
   DBMS_OUTPUT.PUT_LINE('  - trg_donors_update_timestamp');
@@ -19,27 +19,11 @@ SELECT
     d.is_active,
     d.created_at,
     COUNT(DISTINCT don.donation_id) AS total_donations,
-    -- Money donations converted to PEN
-    SUM(CASE 
-        WHEN dt.type_code = 'MONEY' THEN
-            CASE 
-                WHEN c.currency_code = 'PEN' THEN don.amount
-                ELSE don.amount * NVL((
-                    SELECT exchange_rate 
-                    FROM tbl_exchange_rates 
-                    WHERE from_currency_id = don.currency_id 
-                    AND to_currency_id = (SELECT currency_id FROM tbl_currencies WHERE currency_code = 'PEN')
-                    AND is_active = 'Y'
-                    AND ROWNUM = 1
-                ), 1)
-            END
-        ELSE don.quantity * NVL(don.unit_value, 0)
-    END) AS total_value_pen,
+    -- Total value in PEN is computed by the web application (per-day
+    -- exchange rates, see CurrencyService), not in this view
     MAX(don.donation_date) AS last_donation_date
 FROM tbl_donors d
 LEFT JOIN tbl_donations don ON d.donor_id = don.donor_id
-LEFT JOIN tbl_donation_types dt ON don.donation_type_id = dt.donation_type_id
-LEFT JOIN tbl_currencies c ON don.currency_id = c.currency_id
 GROUP BY 
     d.donor_id,
     d.donor_code,
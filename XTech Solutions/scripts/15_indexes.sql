@@ -0,0 +1,39 @@
+-- ================================================================
+-- HOPECARE PROJECT - 15_INDEXES.SQL
+-- Supporting indexes for application access paths
+-- ================================================================
+
+-- ============================================================
+-- KEYSET PAGINATION (newest first, date + id)
+-- ============================================================
+
+CREATE INDEX idx_donations_date_id ON tbl_donations (donation_date DESC, donation_id DESC);
+CREATE INDEX idx_deliveries_date_id ON tbl_deliveries (delivery_date DESC, delivery_id DESC);
+CREATE INDEX idx_donors_created_id ON tbl_donors (created_at DESC, donor_id DESC);
+CREATE INDEX idx_beneficiaries_created_id ON tbl_beneficiaries (created_at DESC, beneficiary_id DESC);
+
+-- Per-page summaries (donor and beneficiary lists aggregate only the page's rows)
+CREATE INDEX idx_donations_donor ON tbl_donations (donor_id);
+CREATE INDEX idx_deliveries_beneficiary ON tbl_deliveries (beneficiary_id);
+
+PROMPT 'Pagination indexes created successfully';
+
+-- ============================================================
+-- APPLICATION AUDIT (already-audited checks and recovery)
+-- ============================================================
+
+CREATE INDEX idx_audit_donations_row ON tbl_audit_donations (donation_id, action_type);
+CREATE INDEX idx_audit_deliveries_row ON tbl_audit_deliveries (delivery_id, action_type);
+
+PROMPT 'Audit indexes created successfully';
+
+-- ============================================================
+-- SUCCESS MESSAGE
+-- ============================================================
+
+BEGIN
+  DBMS_OUTPUT.PUT_LINE('========================================');
+  DBMS_OUTPUT.PUT_LINE('INDEXES CREATED SUCCESSFULLY!');
+  DBMS_OUTPUT.PUT_LINE('========================================');
+END;
+/
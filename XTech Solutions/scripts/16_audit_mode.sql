@@ -0,0 +1,38 @@
+-- ================================================================
+-- HOPECARE PROJECT - 16_AUDIT_MODE.SQL
+-- Switch the schema between trigger and application audit mode
+-- Usage: @16_audit_mode.sql application   (or: @16_audit_mode.sql trigger)
+--
+-- Run once per switch; the web application never changes the triggers
+-- itself. Every node reads the state of the INSERT audit triggers and
+-- writes INSERT audit rows only while they are disabled, so all nodes
+-- on the schema follow the switch within
+-- hopecare.audit.mode-check-interval-ms. UPDATE and DELETE audits
+-- (TRG_AUDIT_DONATIONS, TRG_AUDIT_DELIVERIES) are never disabled.
+-- ================================================================
+
+SET SERVEROUTPUT ON SIZE UNLIMITED;
+SET VERIFY OFF;
+
+DECLARE
+    v_mode VARCHAR2(20) := LOWER(TRIM('&1'));
+    v_action VARCHAR2(10);
+BEGIN
+    IF v_mode = 'application' THEN
+        v_action := 'DISABLE';
+    ELSIF v_mode = 'trigger' THEN
+        v_action := 'ENABLE';
+    ELSE
+        RAISE_APPLICATION_ERROR(-20001, 'Audit mode must be application or trigger');
+    END IF;
+
+    EXECUTE IMMEDIATE 'ALTER TRIGGER trg_audit_donations_ins ' || v_action;
+    EXECUTE IMMEDIATE 'ALTER TRIGGER trg_audit_deliveries_ins ' || v_action;
+
+    DBMS_OUTPUT.PUT_LINE('========================================');
+    DBMS_OUTPUT.PUT_LINE('AUDIT MODE: ' || UPPER(v_mode));
+    DBMS_OUTPUT.PUT_LINE('  - trg_audit_donations_ins ' || LOWER(v_action) || 'd');
+    DBMS_OUTPUT.PUT_LINE('  - trg_audit_deliveries_ins ' || LOWER(v_action) || 'd');
+    DBMS_OUTPUT.PUT_LINE('========================================');
+END;
+/